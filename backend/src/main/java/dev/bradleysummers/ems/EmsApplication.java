@@ -3,10 +3,12 @@ package dev.bradleysummers.ems;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import javax.sql.DataSource;
 
 @SpringBootApplication
+@EnableScheduling
 public class EmsApplication implements CommandLineRunner {
 
 	private final DataSource dataSource;
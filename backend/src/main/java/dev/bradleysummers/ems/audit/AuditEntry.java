@@ -0,0 +1,19 @@
+package dev.bradleysummers.ems.audit;
+
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of {@code audit_log}: who made a committed change, to what, and through which request.
+ */
+public record AuditEntry(
+        LocalDateTime occurredAt,
+        String actor,
+        ChangeAction action,
+        EntityType entityType,
+        Long entityId,
+        Long entityVersion,
+        String request) {
+}
@@ -0,0 +1,216 @@
+package dev.bradleysummers.ems.audit;
+
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every committed employee and department change in {@code audit_log} without
+ * putting an insert on the request path.
+ * <p>
+ * Committed changes are queued in a bounded buffer and a background worker writes them
+ * in JDBC batches. Nothing is dropped: when the buffer is full, or the worker is not
+ * running, the entry is written inline by the caller instead, and if that write fails too
+ * the entry goes to the application log. The change has already committed by then, so the
+ * caller never sees the failure. The writer stops after the
+ * web server (a lower lifecycle phase), once in-flight requests have finished, and drains
+ * the buffer before the application closes its connection pool.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    static final String INSERT_SQL = "insert into audit_log " +
+            "(occurred_at, actor, action, entity_type, entity_id, entity_version, request) " +
+            "values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final long POLL_TIMEOUT_MS = 1_000;
+    private static final long RETRY_DELAY_MS = 2_000;
+    private static final long SHUTDOWN_TIMEOUT_MS = 30_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<AuditEntry> queue;
+    private final int batchSize;
+    private final Counter written;
+    private final Counter writtenInline;
+
+    private volatile boolean running;
+    private Thread worker;
+    // A batch the worker gave up on at shutdown; read by stop() after joining the worker
+    private List<AuditEntry> unwritten = List.of();
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${ems.audit.buffer-size:10000}") int bufferSize,
+                          @Value("${ems.audit.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.written = Counter.builder("ems.audit.written")
+                .description("Audit entries written to audit_log")
+                .register(meterRegistry);
+        this.writtenInline = Counter.builder("ems.audit.written.inline")
+                .description("Audit entries written by the request thread because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("ems.audit.buffered", queue, BlockingQueue::size)
+                .description("Audit entries waiting to be written")
+                .register(meterRegistry);
+    }
+
+    // After commit only, so rolled-back changes are never audited
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(OrgChangeEvent event) {
+        record(new AuditEntry(LocalDateTime.now(), currentActor(), event.action(), event.entityType(),
+                event.id(), event.version(), currentRequest()));
+    }
+
+    void record(AuditEntry entry) {
+        if (running && queue.offer(entry)) {
+            return;
+        }
+        writtenInline.increment();
+        try {
+            write(List.of(entry));
+        } catch (RuntimeException e) {
+            // The database is failing and the worker is holding a full buffer behind it
+            logUnwritten(List.of(entry));
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform()
+                .name("audit-log-writer")
+                .daemon(true)
+                .start(this::drainLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            try {
+                worker.join(SHUTDOWN_TIMEOUT_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        // Whatever the worker did not get to, including entries queued while it was exiting
+        List<AuditEntry> remaining = new ArrayList<>(unwritten);
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            try {
+                write(remaining);
+            } catch (DataAccessException e) {
+                logUnwritten(remaining);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stop after the web server (DEFAULT_PHASE - 1024 / - 2048) so no request can still be writing
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void drainLoop() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEntry first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                if (!writeWithRetry(batch)) {
+                    unwritten = batch;
+                    return;
+                }
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Keeps the batch until it is written; callers fall back to inline writes meanwhile.
+    // Returns false if shutdown began first, leaving the final attempt to stop().
+    private boolean writeWithRetry(List<AuditEntry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                write(batch);
+                return true;
+            } catch (DataAccessException e) {
+                if (!running) {
+                    return false;
+                }
+                log.warn("Audit log write failed, retrying in {} ms: {}", RETRY_DELAY_MS, e.getMessage());
+                Thread.sleep(RETRY_DELAY_MS);
+            }
+        }
+    }
+
+    // Last resort: keep the record in the application log
+    private static void logUnwritten(List<AuditEntry> entries) {
+        entries.forEach(entry -> log.error("Audit entry could not be written: {}", entry));
+    }
+
+    private void write(List<AuditEntry> entries) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+            ps.setTimestamp(1, Timestamp.valueOf(entry.occurredAt()));
+            ps.setString(2, entry.actor());
+            ps.setString(3, entry.action().name());
+            ps.setString(4, entry.entityType().name());
+            ps.setLong(5, entry.entityId());
+            ps.setObject(6, entry.entityVersion());
+            ps.setString(7, entry.request());
+        });
+        written.increment(entries.size());
+    }
+
+    private static String currentActor() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null ? auth.getName() : "system";
+    }
+
+    private static String currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            String line = request.getMethod() + " " + request.getRequestURI();
+            return line.length() > 512 ? line.substring(0, 512) : line;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,131 @@
+package dev.bradleysummers.ems.cache;
+
+import dev.bradleysummers.ems.config.CacheConfig;
+import dev.bradleysummers.ems.enums.EntityType;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps local caches coherent across replicas using PostgreSQL LISTEN/NOTIFY.
+ * <p>
+ * Writers queue a {@code pg_notify} inside their transaction, which Postgres only delivers
+ * if the transaction commits. Every replica (including the writer) listens on a dedicated
+ * connection outside the pool and evicts the named entry. After a reconnect all caches are
+ * cleared, since notifications sent while disconnected are lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClusterCacheInvalidator implements SmartLifecycle {
+
+    static final String CHANNEL = "ems_cache_invalidation";
+
+    private final CacheManager cacheManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${ems.cache.cluster-invalidation.enabled:true}")
+    private boolean enabled;
+
+    private PostgresChannelListener listener;
+
+    /**
+     * Queues an eviction on every replica. A {@code null} key clears the whole cache.
+     * Must be called inside the transaction that made the change.
+     */
+    public void broadcast(String cacheName, Object key) {
+        if (!enabled) {
+            return;
+        }
+        String payload = cacheName + ":" + encodeKey(key);
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, CHANNEL, payload);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(OrgChangeEvent event) {
+        if (event.entityType() == EntityType.DEPARTMENT) {
+            broadcast(CacheConfig.DEPARTMENTS, event.id());
+            broadcast(CacheConfig.DEPARTMENT_LIST, null);
+        } else if (event.entityType() == EntityType.EMPLOYEE) {
+            // The change may have revoked the employee's tokens
+            broadcast(CacheConfig.TOKEN_VERSIONS, event.id());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Anything may have changed while we were not listening
+        listener = new PostgresChannelListener(dataSourceProperties, CHANNEL, this::clearAll, this::apply);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return listener != null && listener.isRunning();
+    }
+
+    void apply(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(payload.substring(0, separator));
+        if (cache == null) {
+            return;
+        }
+        Object key = decodeKey(payload.substring(separator + 1));
+        if (key == null) {
+            cache.clear();
+        } else {
+            cache.evict(key);
+        }
+    }
+
+    private void clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+
+    // Keys keep their type across the wire so Long ids evict Long-keyed entries
+    static String encodeKey(Object key) {
+        if (key == null) {
+            return "*";
+        }
+        if (key instanceof Long id) {
+            return "L" + id;
+        }
+        return "S" + key;
+    }
+
+    static Object decodeKey(String encoded) {
+        if (encoded.equals("*")) {
+            return null;
+        }
+        if (encoded.startsWith("L")) {
+            return Long.parseLong(encoded.substring(1));
+        }
+        return encoded.substring(1);
+    }
+}
@@ -0,0 +1,102 @@
+package dev.bradleysummers.ems.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps a value loaded before an eviction from being cached after it.
+ * <p>
+ * A miss reads the database, and a change can commit and evict the key while that read is
+ * still running; the loader then caches the value it read before the change, and it stays
+ * until the entry expires. Every eviction here first bumps a generation for the key. A load
+ * that sees the generation move while it ran evicts what it just cached, so the next
+ * lookup reads the committed state.
+ * <p>
+ * Generations are kept in a fixed number of stripes, so unrelated keys can share one. A
+ * shared stripe only costs an extra miss. Only {@link #get(Object, Callable)} is checked;
+ * callers must use it (e.g. {@code @Cacheable(sync = true)}) to load values.
+ */
+public class GenerationCheckedCache implements Cache {
+
+    private static final int STRIPES = 256;
+
+    private final Cache target;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    public GenerationCheckedCache(Cache target) {
+        this.target = target;
+    }
+
+    @Override
+    public String getName() {
+        return target.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return target.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return target.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return target.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        T value = target.get(key, valueLoader);
+        if (generations.get(stripe) != generation) {
+            // Evicted while loading; what was cached may predate the change
+            target.evict(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        target.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        generations.incrementAndGet(stripe(key));
+        target.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        generations.incrementAndGet(stripe(key));
+        return target.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        bumpAll();
+        target.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        bumpAll();
+        return target.invalidate();
+    }
+
+    private void bumpAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), STRIPES);
+    }
+}
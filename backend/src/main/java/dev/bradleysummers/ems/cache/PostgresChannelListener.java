@@ -0,0 +1,95 @@
+package dev.bradleysummers.ems.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@code LISTEN} on a dedicated connection outside the pool and hands each payload to
+ * a callback on a daemon thread. Reconnects after failures; {@code onConnect} runs after
+ * every (re)connect, since notifications sent while disconnected are lost.
+ */
+@Slf4j
+public class PostgresChannelListener {
+
+    private static final int POLL_TIMEOUT_MS = 10_000;
+    private static final long RETRY_DELAY_MS = 5_000;
+
+    private final DataSourceProperties dataSourceProperties;
+    private final String channel;
+    private final Runnable onConnect;
+    private final Consumer<String> onNotification;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresChannelListener(DataSourceProperties dataSourceProperties, String channel,
+                                   Runnable onConnect, Consumer<String> onNotification) {
+        this.dataSourceProperties = dataSourceProperties;
+        this.channel = channel;
+        this.onConnect = onConnect;
+        this.onNotification = onNotification;
+    }
+
+    public void start() {
+        running = true;
+        listener = Thread.ofPlatform()
+                .name(channel + "-listener")
+                .daemon(true)
+                .start(this::listen);
+    }
+
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                onConnect.run();
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        onNotification.accept(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Listener on {} disconnected, retrying in {} ms: {}", channel, RETRY_DELAY_MS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_DELAY_MS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package dev.bradleysummers.ems.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.bradleysummers.ems.cache.GenerationCheckedCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.Set;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String DEPARTMENTS = "departments";
+    public static final String DEPARTMENT_LIST = "departmentList";
+    public static final String ANALYTICS = "analytics";
+    public static final String TOKEN_VERSIONS = "tokenVersions";
+
+    // Evicted on change, locally and by other replicas; must be loaded with @Cacheable(sync = true)
+    private static final Set<String> CHECKED_CACHES = Set.of(DEPARTMENTS, DEPARTMENT_LIST, TOKEN_VERSIONS);
+
+    // expireAfterWrite bounds staleness if a cross-replica invalidation is ever missed
+    @Value("${ems.cache.departments.spec:maximumSize=1000,expireAfterWrite=10m,recordStats}")
+    private String departmentsSpec;
+
+    // Keyed by time bucket, so only the current bucket's entry is ever read again
+    @Value("${ems.cache.analytics.spec:maximumSize=4,expireAfterWrite=10m,recordStats}")
+    private String analyticsSpec;
+
+    // Read on every authenticated request; evicted on every employee change
+    @Value("${ems.cache.token-versions.spec:maximumSize=10000,expireAfterWrite=5m,recordStats}")
+    private String tokenVersionsSpec;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager caffeine = new CaffeineCacheManager() {
+            @Override
+            protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+                Cache adapted = super.adaptCaffeineCache(name, cache);
+                // A committed change must not be undone by a value read before it; analytics
+                // buckets are never evicted, only expired
+                return CHECKED_CACHES.contains(name) ? new GenerationCheckedCache(adapted) : adapted;
+            }
+        };
+        // Only the caches registered here exist; a typo in a cache name fails fast
+        caffeine.setCacheNames(List.of());
+        caffeine.registerCustomCache(DEPARTMENTS, Caffeine.from(departmentsSpec).build());
+        caffeine.registerCustomCache(DEPARTMENT_LIST, Caffeine.from(departmentsSpec).build());
+        caffeine.registerCustomCache(ANALYTICS, Caffeine.from(analyticsSpec).build());
+        caffeine.registerCustomCache(TOKEN_VERSIONS, Caffeine.from(tokenVersionsSpec).build());
+        caffeine.setAllowNullValues(false);
+
+        // Defer puts and evictions until the surrounding transaction commits, so a
+        // concurrent reader cannot re-cache the pre-commit state
+        return new TransactionAwareCacheManagerProxy(caffeine);
+    }
+}
@@ -0,0 +1,46 @@
+package dev.bradleysummers.ems.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Applies a configurable Cache-Control policy to GET responses of the read endpoints.
+ * Spring Security leaves an existing Cache-Control header alone, so these replace its
+ * default no-store policy for the listed paths only.
+ */
+@Configuration
+public class CacheControlConfig implements WebMvcConfigurer {
+
+    @Value("${ems.http.cache-control.employees:private, no-cache}")
+    private String employeesPolicy;
+
+    @Value("${ems.http.cache-control.departments:private, no-cache}")
+    private String departmentsPolicy;
+
+    @Value("${ems.http.cache-control.reports:private, max-age=10}")
+    private String reportsPolicy;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CacheControlInterceptor(employeesPolicy)).addPathPatterns("/api/employees", "/api/employees/*");
+        registry.addInterceptor(new CacheControlInterceptor(departmentsPolicy)).addPathPatterns("/api/departments", "/api/departments/*");
+        registry.addInterceptor(new CacheControlInterceptor(reportsPolicy)).addPathPatterns("/api/reports/**");
+    }
+
+    private record CacheControlInterceptor(String policy) implements HandlerInterceptor {
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (HttpMethod.GET.matches(request.getMethod()) && !policy.isBlank()) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, policy);
+            }
+            return true;
+        }
+    }
+}
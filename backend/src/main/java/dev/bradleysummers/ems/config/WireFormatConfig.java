@@ -0,0 +1,32 @@
+package dev.bradleysummers.ems.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Binary encodings for bulk API consumers. A client sending {@code Accept: application/cbor}
+ * or {@code Accept: application/x-jackson-smile} gets the same DTOs as the JSON API in a
+ * more compact form that is cheaper to parse; everyone else still gets JSON.
+ * <p>
+ * The converters are built from Boot's {@link Jackson2ObjectMapperBuilder} (a fresh
+ * prototype per injection point) so they share the JSON mapper's modules and
+ * {@code spring.jackson.*} settings.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
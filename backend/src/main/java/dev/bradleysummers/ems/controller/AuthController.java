@@ -2,18 +2,26 @@ package dev.bradleysummers.ems.controller;
 
 import dev.bradleysummers.ems.dto.auth.AuthRequest;
 import dev.bradleysummers.ems.dto.auth.AuthResponse;
+import dev.bradleysummers.ems.dto.auth.RefreshRequest;
 import dev.bradleysummers.ems.dto.EmployeeResponseDto;
 import dev.bradleysummers.ems.entity.Employee;
 import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.EmployeeCredentials;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
 import dev.bradleysummers.ems.security.JwtService;
 import dev.bradleysummers.ems.security.LoginAttemptService;
+import dev.bradleysummers.ems.security.RefreshTokenService;
+import dev.bradleysummers.ems.security.TokenRevocationList;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.*;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -24,13 +32,15 @@ public class AuthController {
     private final EmployeeRepository employeeRepository;
     private final JwtService jwtService;
     private final LoginAttemptService loginAttemptService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
 
     @PostMapping("/login")
     public AuthResponse login(@RequestBody AuthRequest request) {
         String email = request.getEmail();
         if (loginAttemptService.isBlocked(email)) {
-            throw new org.springframework.web.server.ResponseStatusException(
-                org.springframework.http.HttpStatus.TOO_MANY_REQUESTS,
+            throw new ResponseStatusException(
+                HttpStatus.TOO_MANY_REQUESTS,
                 "Too many failed login attempts. Please try again later."
             );
         }
@@ -49,19 +59,57 @@ public class AuthController {
         }
 
         // Get the employee (user)
-        Employee employee = employeeRepository.findByEmail(email)
+        EmployeeCredentials employee = employeeRepository.findCredentialsByEmail(email)
             .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         // Generate JWT
-        String token = jwtService.generateToken(employee.getEmail());
+        String token = jwtService.generateToken(employee);
+        String refreshToken = refreshTokenService.issue(employee.getId(), employee.getTokenVersion());
 
-        return new AuthResponse(token);
+        return new AuthResponse(token, refreshToken, jwtService.getAccessTokenTtl().toSeconds());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token. The access
+     * token is built from the employee's current role and token version, read from the
+     * primary by the rotation itself; this endpoint is unauthenticated, so primary pinning
+     * would not keep a separate lookup off a lagging replica.
+     */
+    @PostMapping("/refresh")
+    public AuthResponse refresh(@RequestBody RefreshRequest request) {
+        if (request.getRefreshToken() == null || request.getRefreshToken().isBlank()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token is invalid or expired.");
+        }
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+
+        String token = jwtService.generateToken(rotation.employee(), rotation.tokenVersion());
+        return new AuthResponse(token, rotation.refreshToken(), jwtService.getAccessTokenTtl().toSeconds());
+    }
+
+    /**
+     * Revokes the caller's access token and the refresh token family it was issued with.
+     * Both are optional, so a client can always log out even with an expired access token.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+                                       @RequestBody(required = false) RefreshRequest request) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            try {
+                JwtService.VerifiedToken token = jwtService.verify(authHeader.substring(7));
+                tokenRevocationList.revoke(token.tokenId(), token.expiresAt());
+            } catch (JwtException | IllegalArgumentException e) {
+                // Already unusable
+            }
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            refreshTokenService.revoke(request.getRefreshToken());
+        }
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/me")
     public EmployeeResponseDto getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee employee = employeeRepository.findByEmail(auth.getName())
+        Employee employee = employeeRepository.findById(AuthenticatedEmployee.current().id())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return EmployeeMapper.toDto(employee);
     }
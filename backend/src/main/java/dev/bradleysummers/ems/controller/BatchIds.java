@@ -0,0 +1,32 @@
+package dev.bradleysummers.ems.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Validation for the {@code ids=} parameter of the batch list endpoints.
+ */
+final class BatchIds {
+
+    private BatchIds() {
+    }
+
+    /**
+     * The distinct ids requested, or {@code null} when the parameter was not given. More than
+     * {@code max} ids is a bad request, which keeps the IN list (and the response) bounded.
+     */
+    static List<Long> check(List<Long> ids, int max) {
+        if (ids == null) {
+            return null;
+        }
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinct.size() > max) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + max + " ids can be requested at once");
+        }
+        return distinct;
+    }
+}
@@ -1,12 +1,21 @@
 package dev.bradleysummers.ems.controller;
 
+import dev.bradleysummers.ems.dto.DepartmentWithStatsDto;
 import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.DepartmentStats;
+import dev.bradleysummers.ems.mapper.DepartmentMapper;
 import dev.bradleysummers.ems.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/departments")
@@ -15,24 +24,68 @@ public class DepartmentController {
 
     private final DepartmentService departmentService;
 
+    @Value("${ems.api.max-batch-ids:100}")
+    private int maxBatchIds;
+
+    /**
+     * Lists departments, or with {@code ids=1,2,3} just those departments (at most
+     * {@code ems.api.max-batch-ids}), read in one query.
+     */
     @GetMapping
-    public ResponseEntity<List<Department>> getAllDepartments() {
-        return ResponseEntity.ok(departmentService.findAll());
+    public ResponseEntity<List<DepartmentWithStatsDto>> getAllDepartments(
+            @RequestParam(required = false) List<Long> ids,
+            WebRequest webRequest) {
+        List<Long> requestedIds = BatchIds.check(ids, maxBatchIds);
+
+        // Departments come from the cache; the counts are one read of department_stats
+        List<Department> departments = requestedIds != null
+                ? departmentService.findAllById(requestedIds)
+                : departmentService.findAll();
+        Map<Long, DepartmentStats> stats = requestedIds != null
+                ? departmentService.findStats(requestedIds)
+                : departmentService.findAllStats();
+        String etag = EntityTags.forDepartments(departments, stats);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+
+        List<DepartmentWithStatsDto> response = departments.stream()
+                .map(department -> DepartmentMapper.toDto(department, stats.get(department.getId())))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok().eTag(etag).body(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Department> getDepartmentById(@PathVariable Long id) {
-        return ResponseEntity.ok(departmentService.findById(id));
+    public ResponseEntity<DepartmentWithStatsDto> getDepartmentById(@PathVariable Long id, WebRequest webRequest) {
+        Department department = departmentService.findById(id);
+        DepartmentStats stats = departmentService.findStats(id);
+        String etag = EntityTags.forDepartment(department, stats);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(DepartmentMapper.toDto(department, stats));
     }
 
     @PostMapping
-    public ResponseEntity<Department> createDepartment(@RequestBody Department department) {
-        return ResponseEntity.ok(departmentService.create(department));
+    public ResponseEntity<DepartmentWithStatsDto> createDepartment(@RequestBody Department department) {
+        Department saved = departmentService.create(department);
+        return ResponseEntity.ok(DepartmentMapper.toDto(saved, departmentService.findStats(saved.getId())));
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Department> updateDepartment(@PathVariable Long id, @RequestBody Department updated) {
-        return ResponseEntity.ok(departmentService.update(id, updated));
+    public ResponseEntity<DepartmentWithStatsDto> updateDepartment(
+            @PathVariable Long id,
+            @RequestBody Department updated,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // If-Match takes precedence over a version sent in the body
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        if (expectedVersion != null) {
+            updated.setVersion(expectedVersion);
+        }
+
+        Department saved = departmentService.update(id, updated);
+        DepartmentStats stats = departmentService.findStats(id);
+        return ResponseEntity.ok().eTag(EntityTags.forDepartment(saved, stats)).body(DepartmentMapper.toDto(saved, stats));
     }
 
     @DeleteMapping("/{id}")
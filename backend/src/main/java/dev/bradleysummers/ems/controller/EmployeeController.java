@@ -2,17 +2,31 @@ package dev.bradleysummers.ems.controller;
 
 import dev.bradleysummers.ems.dto.EmployeeRequestDto;
 import dev.bradleysummers.ems.dto.EmployeeResponseDto;
+import dev.bradleysummers.ems.dto.NormalizedEmployeeListDto;
 import dev.bradleysummers.ems.entity.Department;
 import dev.bradleysummers.ems.entity.Employee;
 import dev.bradleysummers.ems.enums.Role;
 import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.EmployeeField;
+import dev.bradleysummers.ems.repository.EmployeeSpecifications;
 import dev.bradleysummers.ems.service.DepartmentService;
 import dev.bradleysummers.ems.service.EmployeeService;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -23,43 +37,146 @@ public class EmployeeController {
     private final EmployeeService employeeService;
     private final DepartmentService departmentService;
 
+    @Value("${ems.api.max-batch-ids:100}")
+    private int maxBatchIds;
+
+    /** Vendor media type for the deduplicated list shape, see {@link NormalizedEmployeeListDto}. */
+    public static final String NORMALIZED_JSON_VALUE = "application/vnd.ems.normalized+json";
+    private static final MediaType NORMALIZED_JSON = MediaType.parseMediaType(NORMALIZED_JSON_VALUE);
+
+    /**
+     * Lists employees. Clients opt into the normalized shape, where departments and
+     * managers are sent once and referenced by id, with {@code format=normalized} or
+     * {@code Accept: application/vnd.ems.normalized+json}; the default shape is unchanged.
+     * <p>
+     * {@code fields=firstName,lastName,jobTitle,department} returns only those properties of
+     * each employee, and only their columns are read from the database. It takes precedence
+     * over the normalized format.
+     * <p>
+     * {@code ids=1,2,3} returns just those employees (at most {@code ems.api.max-batch-ids}),
+     * read in one query; ids the caller cannot see are left out.
+     * <p>
+     * {@code role=} and {@code active=} filters, like the caller's visibility, are applied
+     * in the query.
+     */
     @GetMapping
-    public ResponseEntity<List<EmployeeResponseDto>> getAllEmployees(
-            @RequestParam(required = false) String role) {
-        
-        List<Employee> employees = employeeService.findAll();
-        
-        // Filter by role if specified
-        if (role != null && !role.isEmpty()) {
-            String[] roles = role.split(",");
-            employees = employees.stream()
-                    .filter(employee -> {
-                        for (String r : roles) {
-                            try {
-                                if (employee.getRole() == Role.valueOf(r)) {
-                                    return true;
-                                }
-                            } catch (IllegalArgumentException e) {
-                                // Invalid role, ignore
-                            }
-                        }
-                        return false;
-                    })
-                    .collect(Collectors.toList());
+    public ResponseEntity<?> getAllEmployees(
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) Boolean active,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
+
+        Specification<Employee> filter = EmployeeSpecifications.hasRole(parseRoles(role))
+                .and(EmployeeSpecifications.idIn(BatchIds.check(ids, maxBatchIds)))
+                .and(EmployeeSpecifications.isActive(active));
+        if (fields != null && !fields.isBlank()) {
+            return getEmployeeFields(parseFields(fields), filter, webRequest);
         }
-        
+
+        List<Employee> employees = employeeService.findAll(filter);
+
+        boolean normalized = "normalized".equalsIgnoreCase(format) || prefersNormalized(accept);
+
+        // Answer conditional requests before mapping or serializing anything. The two
+        // shapes are different representations, so they must not share a tag.
+        String etag = EntityTags.forEmployees(employees, normalized ? "n" : "");
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+
+        if (normalized) {
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .contentType(NORMALIZED_JSON)
+                    .body(EmployeeMapper.toNormalizedList(employees));
+        }
+
         List<EmployeeResponseDto> response = employees.stream()
                 .map(EmployeeMapper::toDto)
                 .collect(Collectors.toList());
         
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(response);
+    }
+
+    /**
+     * Whether an Accept header asks for the normalized shape: it must list the vendor type
+     * with a non-zero q, weighted at least as high as any type that would match plain JSON.
+     * A header that cannot be parsed gets the default shape.
+     */
+    public static boolean prefersNormalized(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        double normalizedQuality = 0;
+        double jsonQuality = 0;
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.equalsTypeAndSubtype(NORMALIZED_JSON)) {
+                normalizedQuality = Math.max(normalizedQuality, mediaType.getQualityValue());
+            } else if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                jsonQuality = Math.max(jsonQuality, mediaType.getQualityValue());
+            }
+        }
+        return normalizedQuality > 0 && normalizedQuality >= jsonQuality;
+    }
+
+    private ResponseEntity<?> getEmployeeFields(Set<EmployeeField> fields, Specification<Employee> filter,
+                                                WebRequest webRequest) {
+        List<Tuple> rows = employeeService.findAllFields(fields, filter);
+
+        String etag = EntityTags.forEmployeeFields(rows, fields);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(EmployeeMapper.toSparseDtos(rows, fields));
+    }
+
+    // Comma-separated; unknown roles are ignored. Null when no filter was given.
+    private static Set<Role> parseRoles(String role) {
+        if (role == null || role.isEmpty()) {
+            return null;
+        }
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (String r : role.split(",")) {
+            try {
+                roles.add(Role.valueOf(r));
+            } catch (IllegalArgumentException e) {
+                // Invalid role, ignore
+            }
+        }
+        return roles;
+    }
+
+    private static Set<EmployeeField> parseFields(String fields) {
+        try {
+            return EmployeeField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<EmployeeResponseDto> getEmployeeById(@PathVariable Long id) {
+    public ResponseEntity<EmployeeResponseDto> getEmployeeById(@PathVariable Long id, WebRequest webRequest) {
         return employeeService.findById(id)
-                .map(EmployeeMapper::toDto)
-                .map(ResponseEntity::ok)
+                .map(employee -> {
+                    String etag = EntityTags.forEmployee(employee);
+                    if (webRequest.checkNotModified(etag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).<EmployeeResponseDto>build();
+                    }
+                    return ResponseEntity.ok().eTag(etag).body(EmployeeMapper.toDto(employee));
+                })
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -84,7 +201,8 @@ public class EmployeeController {
     @PutMapping("/{id}")
     public ResponseEntity<EmployeeResponseDto> updateEmployee(
             @PathVariable Long id,
-            @RequestBody EmployeeRequestDto dto) {
+            @RequestBody EmployeeRequestDto dto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
         Department department = departmentService.findById(dto.getDepartmentId());
         Employee manager = dto.getManagerId() != null
@@ -92,8 +210,12 @@ public class EmployeeController {
                 : null;
 
         Employee updated = EmployeeMapper.toEntity(dto, department, manager);
+        // If-Match takes precedence over a version sent in the body
+        Long expectedVersion = EntityTags.expectedVersion(ifMatch);
+        updated.setVersion(expectedVersion != null ? expectedVersion : dto.getVersion());
+
         Employee saved = employeeService.update(id, updated);
-        return ResponseEntity.ok(EmployeeMapper.toDto(saved));
+        return ResponseEntity.ok().eTag(EntityTags.forEmployee(saved)).body(EmployeeMapper.toDto(saved));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,145 @@
+package dev.bradleysummers.ems.controller;
+
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.DepartmentStats;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.repository.EmployeeField;
+import jakarta.persistence.Tuple;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds ETags from entity versions so conditional requests can be answered
+ * before any DTO mapping or JSON serialization happens.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Departments are returned with their member counts, which change without the
+     * department's version changing, so the counts are folded into the tag after the version.
+     */
+    static String forDepartment(Department department, DepartmentStats stats) {
+        return "\"" + department.getVersion() + "-" + Long.toHexString(mix(17, stats)) + "\"";
+    }
+
+    /**
+     * The employee representation embeds its department and manager, so the tag also
+     * changes when either of those is modified. The leading segment is the employee's
+     * own version, which is what {@link #expectedVersion(String)} reads back.
+     */
+    static String forEmployee(Employee employee) {
+        return "\"" + employee.getVersion() + "-" + Long.toHexString(mix(17, employee)) + "\"";
+    }
+
+    static String forDepartments(List<Department> departments, Map<Long, DepartmentStats> stats) {
+        long hash = departments.size();
+        for (Department department : departments) {
+            hash = mix(hash, department.getId());
+            hash = mix(hash, department.getVersion());
+            hash = mix(hash, stats.get(department.getId()));
+        }
+        return "W/\"" + Long.toHexString(hash) + "\"";
+    }
+
+    static String forEmployees(List<Employee> employees) {
+        return forEmployees(employees, "");
+    }
+
+    /** As {@link #forEmployees(List)}, with a prefix distinguishing alternative list shapes. */
+    static String forEmployees(List<Employee> employees, String variant) {
+        long hash = employees.size();
+        for (Employee employee : employees) {
+            hash = mix(hash, employee);
+        }
+        return "W/\"" + variant + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Tag for a sparse list read through {@code EmployeeFieldsRepository}. The rows always carry
+     * the employee's version and the version of each joined association, which is everything
+     * {@link #forEmployees(List)} looks at; the field set is part of the tag because each
+     * selection is a different representation.
+     */
+    static String forEmployeeFields(List<Tuple> rows, Set<EmployeeField> fields) {
+        boolean department = fields.contains(EmployeeField.DEPARTMENT);
+        boolean manager = fields.contains(EmployeeField.MANAGER);
+        long hash = rows.size();
+        for (EmployeeField field : fields) {
+            hash = mix(hash, (long) field.ordinal());
+        }
+        for (Tuple row : rows) {
+            hash = mix(hash, row.get("id", Long.class));
+            hash = mix(hash, row.get("version", Long.class));
+            if (department) {
+                hash = mix(hash, row.get("department.id", Long.class));
+                hash = mix(hash, row.get("department.version", Long.class));
+            }
+            if (manager) {
+                hash = mix(hash, row.get("manager.id", Long.class));
+                hash = mix(hash, row.get("manager.version", Long.class));
+            }
+        }
+        return "W/\"f" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Reads the version out of an {@code If-Match} header. Returns {@code null} when the
+     * header is absent or {@code *}, and {@code -1} when it cannot be parsed so the
+     * precondition fails instead of being silently ignored.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        int dash = tag.indexOf('-');
+        if (dash >= 0) {
+            tag = tag.substring(0, dash);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    private static long mix(long hash, Employee employee) {
+        hash = mix(hash, employee.getId());
+        hash = mix(hash, employee.getVersion());
+        if (employee.getDepartment() != null) {
+            hash = mix(hash, employee.getDepartment().getId());
+            hash = mix(hash, employee.getDepartment().getVersion());
+        }
+        if (employee.getManager() != null) {
+            hash = mix(hash, employee.getManager().getId());
+            hash = mix(hash, employee.getManager().getVersion());
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, DepartmentStats stats) {
+        if (stats == null) {
+            return mix(hash, (Long) null);
+        }
+        hash = mix(hash, stats.getTotal());
+        hash = mix(hash, stats.getActive());
+        hash = mix(hash, stats.getAdmins());
+        hash = mix(hash, stats.getEmployees());
+        return mix(hash, stats.getGuests());
+    }
+
+    private static long mix(long hash, Long value) {
+        // FNV-1a style mixing; this only needs to change whenever an input changes
+        hash ^= value != null ? value : -1L;
+        return hash * 0x100000001b3L;
+    }
+}
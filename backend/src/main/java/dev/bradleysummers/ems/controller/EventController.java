@@ -0,0 +1,24 @@
+package dev.bradleysummers.ems.controller;
+
+import dev.bradleysummers.ems.event.OrgChangeStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+public class EventController {
+
+    private final OrgChangeStream orgChangeStream;
+
+    // Events only carry the entity type, id and version; clients fetch the record
+    // through the normal endpoints so the usual visibility rules still apply
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges() {
+        return orgChangeStream.subscribe();
+    }
+}
@@ -1,14 +1,20 @@
 package dev.bradleysummers.ems.controller;
 
+import dev.bradleysummers.ems.dto.FlatOrgChart;
 import dev.bradleysummers.ems.dto.HierarchyNodeDto;
+import dev.bradleysummers.ems.dto.analytics.OrgAnalyticsDto;
+import dev.bradleysummers.ems.service.AnalyticsService;
 import dev.bradleysummers.ems.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -17,10 +23,36 @@ import java.util.List;
 public class ReportController {
 
     private final ReportService reportService;
+    private final AnalyticsService analyticsService;
 
+    /**
+     * The org chart, or with {@code asOf} (e.g. {@code 2025-01-01T00:00:00}) the chart as it
+     * stood at that moment.
+     */
     @GetMapping("/orgchart")
     public ResponseEntity<List<HierarchyNodeDto>> getOrgChart(
-            @RequestParam(required = false) Long departmentId) {
-        return ResponseEntity.ok(reportService.generateHierarchyReport(departmentId));
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        // JSON, CBOR and Smile share this URL
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(reportService.generateHierarchyReport(departmentId, asOf));
+    }
+
+    /**
+     * Columnar org chart for large organisations; see {@link FlatOrgChart} for the layout.
+     */
+    @GetMapping("/orgchart/flat")
+    public ResponseEntity<FlatOrgChart> getFlatOrgChart(
+            @RequestParam(required = false) Long departmentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok()
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(reportService.generateFlatHierarchyReport(departmentId, asOf));
+    }
+
+    @GetMapping("/analytics")
+    public ResponseEntity<OrgAnalyticsDto> getAnalytics() {
+        return ResponseEntity.ok(analyticsService.getAnalytics());
     }
 }
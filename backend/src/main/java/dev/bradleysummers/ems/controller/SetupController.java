@@ -8,6 +8,7 @@ import dev.bradleysummers.ems.enums.Role;
 import dev.bradleysummers.ems.repository.DepartmentRepository;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
 import dev.bradleysummers.ems.security.JwtService;
+import dev.bradleysummers.ems.security.RefreshTokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +23,7 @@ public class SetupController {
     private final DepartmentRepository departmentRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     @GetMapping("/status")
     public ResponseEntity<?> checkSetupStatus() {
@@ -38,7 +40,10 @@ public class SetupController {
 
         // Create default department
         Department adminDepartment = departmentRepository.save(
-            new Department(null, "Administration", "System Administration Department")
+            Department.builder()
+                    .name("Administration")
+                    .description("System Administration Department")
+                    .build()
         );
 
         // Create admin user
@@ -56,9 +61,10 @@ public class SetupController {
         employeeRepository.save(admin);
 
         // Generate JWT token for the new admin
-        String token = jwtService.generateToken(admin.getEmail());
-        
-        return ResponseEntity.ok(new AuthResponse(token));
+        String token = jwtService.generateToken(admin);
+        String refreshToken = refreshTokenService.issue(admin.getId(), admin.getTokenVersion());
+
+        return ResponseEntity.ok(new AuthResponse(token, refreshToken, jwtService.getAccessTokenTtl().toSeconds()));
     }
 
     // Response class for setup status
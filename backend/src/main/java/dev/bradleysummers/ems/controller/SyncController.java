@@ -0,0 +1,33 @@
+package dev.bradleysummers.ems.controller;
+
+import dev.bradleysummers.ems.dto.sync.ChangeFeedDto;
+import dev.bradleysummers.ems.service.SyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/sync")
+@RequiredArgsConstructor
+public class SyncController {
+
+    private final SyncService syncService;
+
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedDto> getChanges(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since, limit));
+        } catch (IllegalArgumentException e) {
+            // Unreadable watermark, including ones issued before the feed moved to
+            // transaction ids; the client has to start over without one
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
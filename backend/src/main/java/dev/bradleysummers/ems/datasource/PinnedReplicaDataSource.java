@@ -0,0 +1,32 @@
+package dev.bradleysummers.ems.datasource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * The replica, except for callers that {@link PrimaryPinning} has pinned to the primary.
+ */
+class PinnedReplicaDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+    private final PrimaryPinning pinning;
+
+    PinnedReplicaDataSource(DataSource replica, DataSource primary, PrimaryPinning pinning) {
+        super(replica);
+        this.primary = primary;
+        this.pinning = pinning;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pinning.isPinned() ? primary.getConnection() : super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pinning.isPinned() ? primary.getConnection(username, password) : super.getConnection(username, password);
+    }
+}
@@ -0,0 +1,50 @@
+package dev.bradleysummers.ems.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers who wrote recently, so their reads go to the primary until the replica has
+ * had time to catch up and they always see their own changes.
+ * <p>
+ * Callers are keyed by authentication name, and the window is tracked per application
+ * instance, so this relies on a caller's requests reaching the same instance (or the
+ * replica lag being shorter than the time between replicas).
+ */
+public class PrimaryPinning {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public PrimaryPinning(Duration window) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    // Every employee and department write publishes an event, so this sees all of them
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(OrgChangeEvent event) {
+        String caller = currentCaller();
+        if (caller != null) {
+            recentWriters.put(caller, Boolean.TRUE);
+        }
+    }
+
+    public boolean isPinned() {
+        String caller = currentCaller();
+        return caller != null && recentWriters.getIfPresent(caller) != null;
+    }
+
+    private static String currentCaller() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return auth != null && auth.isAuthenticated() ? auth.getName() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package dev.bradleysummers.ems.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Sends read-only transactions to a replica when {@code ems.datasource.replica.url} is set.
+ * <p>
+ * The application's {@link DataSource} is a {@link LazyConnectionDataSourceProxy}, which
+ * only fetches a physical connection at the first statement. By then the transaction
+ * manager has marked the connection read-only for {@code @Transactional(readOnly = true)},
+ * and the proxy takes it from the replica pool. Everything else, including Flyway, the
+ * notification listeners and non-transactional JDBC, uses the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ems.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("ems.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${ems.datasource.replica.url}") String url,
+            @Value("${ems.datasource.replica.username:${spring.datasource.username}}") String username,
+            @Value("${ems.datasource.replica.password:${spring.datasource.password}}") String password) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public PrimaryPinning primaryPinning(@Value("${ems.datasource.replica.pin-after-write:PT5S}") Duration window) {
+        return new PrimaryPinning(window);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 PrimaryPinning pinning) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(new PinnedReplicaDataSource(replica, primary, pinning));
+        return dataSource;
+    }
+}
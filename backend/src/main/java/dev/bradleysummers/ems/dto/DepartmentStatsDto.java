@@ -0,0 +1,13 @@
+package dev.bradleysummers.ems.dto;
+
+import dev.bradleysummers.ems.enums.Role;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class DepartmentStatsDto {
+    private long total;
+    private long active;
+    private Map<Role, Long> byRole;
+}
@@ -0,0 +1,20 @@
+package dev.bradleysummers.ems.dto;
+
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import dev.bradleysummers.ems.entity.Department;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A department as returned by the API: the department's own fields, unchanged, plus
+ * its member counts under {@code stats}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentWithStatsDto {
+    @JsonUnwrapped
+    private Department department;
+    private DepartmentStatsDto stats;
+}
@@ -0,0 +1,24 @@
+package dev.bradleysummers.ems.dto;
+
+import dev.bradleysummers.ems.enums.Role;
+import lombok.Data;
+
+/**
+ * Employee row for the normalized list format: the department and manager are
+ * referenced by id and listed once in {@link NormalizedEmployeeListDto}.
+ */
+@Data
+public class EmployeeRefDto {
+    private Long id;
+    private boolean active;
+    private String email;
+    private Role role;
+    private String firstName;
+    private String lastName;
+    private String jobTitle;
+    private String createdAt;
+    private String updatedAt;
+    private Long version;
+    private Long departmentId;
+    private Long managerId;
+}
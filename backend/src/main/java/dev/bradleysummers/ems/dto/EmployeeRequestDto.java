@@ -14,6 +14,7 @@ public class EmployeeRequestDto {
     private String jobTitle;
     private DepartmentDto department;
     private Long managerId;
+    private Long version;
 
     public Long getDepartmentId() {
         return department.getId();
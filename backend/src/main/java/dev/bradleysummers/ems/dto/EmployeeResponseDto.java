@@ -14,6 +14,7 @@ public class EmployeeResponseDto {
     private String jobTitle;
     private String createdAt;
     private String updatedAt;
+    private Long version;
     private DepartmentDto department;
     private EmployeeSummaryDto manager;
 
@@ -0,0 +1,219 @@
+package dev.bradleysummers.ems.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import dev.bradleysummers.ems.repository.OrgChartRow;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar encoding of the org chart: one array per field, indexed by position, with
+ * {@code parent} holding the position of each employee's manager (-1 for roots).
+ * Department names, roles and job titles are indexes into a shared {@code strings}
+ * table (-1 for none).
+ * <p>
+ * Rows are in breadth-first order, so a manager always precedes its reports and the
+ * client can rebuild the tree in one pass. The same rules as the nested report decide
+ * what is a root: employees whose manager is outside the result are roots unless a
+ * department filter is applied, in which case they and their reports are left out.
+ * <p>
+ * The body writes itself to the response's {@link JsonGenerator}, so no per-node
+ * objects are built and the output is streamed in whatever format was negotiated.
+ */
+public final class FlatOrgChart implements JsonSerializable {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final OrgChartRow[] rows;
+    private final int[] parent;
+    private final int[] role;
+    private final int[] department;
+    private final int[] jobTitle;
+    private final List<String> strings;
+
+    private FlatOrgChart(OrgChartRow[] rows, int[] parent, int[] role, int[] department, int[] jobTitle,
+                         List<String> strings) {
+        this.rows = rows;
+        this.parent = parent;
+        this.role = role;
+        this.department = department;
+        this.jobTitle = jobTitle;
+        this.strings = strings;
+    }
+
+    public static FlatOrgChart of(List<OrgChartRow> input, boolean keepOrphans) {
+        int n = input.size();
+        Map<Long, Integer> indexById = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            indexById.put(input.get(i).id(), i);
+        }
+
+        // Parent of each input row, and the roots in input order
+        int[] managerIndex = new int[n];
+        int[] childStart = new int[n + 1];
+        int[] queue = new int[n];
+        int tail = 0;
+        for (int i = 0; i < n; i++) {
+            Long managerId = input.get(i).managerId();
+            Integer manager = managerId != null ? indexById.get(managerId) : null;
+            if (manager != null) {
+                managerIndex[i] = manager;
+                childStart[manager + 1]++;
+            } else {
+                managerIndex[i] = -1;
+                if (managerId == null || keepOrphans) {
+                    queue[tail++] = i;
+                }
+            }
+        }
+
+        // Children grouped by parent, preserving input order among siblings
+        for (int i = 0; i < n; i++) {
+            childStart[i + 1] += childStart[i];
+        }
+        int[] children = new int[n];
+        int[] fill = childStart.clone();
+        for (int i = 0; i < n; i++) {
+            if (managerIndex[i] >= 0) {
+                children[fill[managerIndex[i]]++] = i;
+            }
+        }
+
+        // Breadth-first walk; rows not reachable from a root are dropped, as in the nested report
+        int[] position = new int[n];
+        for (int head = 0; head < tail; head++) {
+            int node = queue[head];
+            position[node] = head;
+            for (int c = childStart[node]; c < childStart[node + 1]; c++) {
+                queue[tail++] = children[c];
+            }
+        }
+
+        OrgChartRow[] rows = new OrgChartRow[tail];
+        int[] parent = new int[tail];
+        int[] role = new int[tail];
+        int[] department = new int[tail];
+        int[] jobTitle = new int[tail];
+        Map<String, Integer> stringIndex = new LinkedHashMap<>();
+        for (int k = 0; k < tail; k++) {
+            int node = queue[k];
+            OrgChartRow row = input.get(node);
+            rows[k] = row;
+            parent[k] = managerIndex[node] >= 0 ? position[managerIndex[node]] : -1;
+            role[k] = intern(stringIndex, row.role() != null ? row.role().name() : null);
+            department[k] = intern(stringIndex, row.departmentName());
+            jobTitle[k] = intern(stringIndex, row.jobTitle());
+        }
+        return new FlatOrgChart(rows, parent, role, department, jobTitle, new ArrayList<>(stringIndex.keySet()));
+    }
+
+    public int size() {
+        return rows.length;
+    }
+
+    private static int intern(Map<String, Integer> stringIndex, String value) {
+        if (value == null) {
+            return -1;
+        }
+        return stringIndex.computeIfAbsent(value, key -> stringIndex.size());
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+        gen.writeStartObject();
+        gen.writeNumberField("count", rows.length);
+
+        gen.writeArrayFieldStart("strings");
+        for (String value : strings) {
+            gen.writeString(value);
+        }
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("id");
+        for (OrgChartRow row : rows) {
+            gen.writeNumber(row.id());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName("parent");
+        gen.writeArray(parent, 0, parent.length);
+
+        gen.writeArrayFieldStart("firstName");
+        for (OrgChartRow row : rows) {
+            gen.writeString(row.firstName());
+        }
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("lastName");
+        for (OrgChartRow row : rows) {
+            gen.writeString(row.lastName());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName("role");
+        gen.writeArray(role, 0, role.length);
+
+        gen.writeArrayFieldStart("departmentId");
+        for (OrgChartRow row : rows) {
+            writeNullable(gen, row.departmentId());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName("department");
+        gen.writeArray(department, 0, department.length);
+
+        gen.writeArrayFieldStart("managerId");
+        for (OrgChartRow row : rows) {
+            writeNullable(gen, row.managerId());
+        }
+        gen.writeEndArray();
+
+        gen.writeFieldName("jobTitle");
+        gen.writeArray(jobTitle, 0, jobTitle.length);
+
+        gen.writeArrayFieldStart("createdAt");
+        for (OrgChartRow row : rows) {
+            writeTimestamp(gen, row.createdAt());
+        }
+        gen.writeEndArray();
+
+        gen.writeArrayFieldStart("updatedAt");
+        for (OrgChartRow row : rows) {
+            writeTimestamp(gen, row.updatedAt());
+        }
+        gen.writeEndArray();
+
+        gen.writeEndObject();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+        serialize(gen, serializers);
+    }
+
+    private static void writeNullable(JsonGenerator gen, Long value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    private static void writeTimestamp(JsonGenerator gen, LocalDateTime value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(TIMESTAMP.format(value));
+        }
+    }
+}
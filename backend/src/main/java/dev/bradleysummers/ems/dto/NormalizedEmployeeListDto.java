@@ -0,0 +1,16 @@
+package dev.bradleysummers.ems.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class NormalizedEmployeeListDto {
+    private List<EmployeeRefDto> employees = new ArrayList<>();
+    // Keyed by id; each department and manager appears once however many employees reference it
+    private Map<Long, DepartmentDto> departments = new LinkedHashMap<>();
+    private Map<Long, EmployeeSummaryDto> managers = new LinkedHashMap<>();
+}
@@ -0,0 +1,15 @@
+package dev.bradleysummers.ems.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DepartmentHeadcountDto {
+    private Long departmentId;
+    private String name;
+    private long total;
+    private long active;
+}
@@ -0,0 +1,29 @@
+package dev.bradleysummers.ems.dto.analytics;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrgAnalyticsDto {
+    // When these figures were computed; they are reused for the rest of the time bucket
+    private String asOf;
+    private long totalEmployees;
+    private long activeEmployees;
+    private long inactiveEmployees;
+    // Employees not assigned to any department
+    private long unassignedEmployees;
+    private List<DepartmentHeadcountDto> byDepartment;
+    private List<RoleHeadcountDto> byRole;
+    // Employees with at least one direct report
+    private long managers;
+    // Mean direct reports per manager
+    private double averageSpanOfControl;
+    private long maxSpanOfControl;
+    // Longest chain from a top-level employee down, counting both ends (1 = no reports anywhere)
+    private int maxChainDepth;
+}
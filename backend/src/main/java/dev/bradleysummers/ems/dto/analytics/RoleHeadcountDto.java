@@ -0,0 +1,15 @@
+package dev.bradleysummers.ems.dto.analytics;
+
+import dev.bradleysummers.ems.enums.Role;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleHeadcountDto {
+    private Role role;
+    private long total;
+    private long active;
+}
@@ -0,0 +1,8 @@
+package dev.bradleysummers.ems.dto.auth;
+
+import lombok.Data;
+
+@Data
+public class RefreshRequest {
+    private String refreshToken;
+}
@@ -0,0 +1,26 @@
+package dev.bradleysummers.ems.dto.sync;
+
+import dev.bradleysummers.ems.dto.DepartmentDto;
+import dev.bradleysummers.ems.dto.EmployeeResponseDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDto {
+    // Employees created or updated since the previous watermark
+    private List<EmployeeResponseDto> changed;
+    // Departments created or updated since the previous watermark, including renames, which
+    // apply to every employee in them
+    private List<DepartmentDto> departments;
+    // Employees and departments deleted since the previous watermark
+    private List<TombstoneDto> deleted;
+    // Pass back as ?since= to resume from where this page ended
+    private String watermark;
+    // True when more changes are waiting; poll again straight away
+    private boolean hasMore;
+}
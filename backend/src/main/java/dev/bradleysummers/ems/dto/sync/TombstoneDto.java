@@ -0,0 +1,15 @@
+package dev.bradleysummers.ems.dto.sync;
+
+import dev.bradleysummers.ems.enums.EntityType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TombstoneDto {
+    private EntityType type;
+    private Long id;
+    private String deletedAt;
+}
@@ -1,5 +1,6 @@
 package dev.bradleysummers.ems.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -23,4 +24,13 @@ public class Department {
 
     @Column(name = "description")
     private String description;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Set by the trigger in V15, as for employees; the change feed's cursor, not part of the API
+    @JsonIgnore
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private long changeXid;
 }
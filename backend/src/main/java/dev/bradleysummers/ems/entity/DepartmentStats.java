@@ -0,0 +1,38 @@
+package dev.bradleysummers.ems.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * Member counts for a department. Maintained by database triggers on {@code employees}
+ * and {@code departments} (see V6__department_stats.sql), so the application only reads it.
+ */
+@Entity
+@Immutable
+@Table(name = "department_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DepartmentStats {
+
+    @Id
+    @Column(name = "department_id")
+    private Long departmentId;
+
+    @Column(name = "total", nullable = false)
+    private long total;
+
+    @Column(name = "active", nullable = false)
+    private long active;
+
+    @Column(name = "admins", nullable = false)
+    private long admins;
+
+    @Column(name = "employees", nullable = false)
+    private long employees;
+
+    @Column(name = "guests", nullable = false)
+    private long guests;
+}
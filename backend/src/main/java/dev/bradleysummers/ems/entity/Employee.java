@@ -7,6 +7,7 @@ import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Entity
 @Table(name = "employees")
@@ -52,11 +53,43 @@ public class Employee {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
-    @ManyToOne
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Maintained by the trigger in V10; bumped whenever existing access tokens must stop working
+    @Column(name = "token_version", insertable = false, updatable = false)
+    private long tokenVersion;
+
+    // Set by the trigger in V12 to the id of the last transaction that wrote the row; the
+    // change feed's cursor
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private long changeXid;
+
+    // Lazy, so a load never walks the management chain; repositories fetch what callers need
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "department_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Department department;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "manager_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Employee manager;
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        this.email = normalizeEmail(this.email);
+    }
+
+    /**
+     * Canonical form used for storing and looking up emails, so lookups can hit the
+     * {@code lower(email)} index regardless of how the address was typed.
+     */
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
@@ -0,0 +1,40 @@
+package dev.bradleysummers.ems.entity;
+
+import dev.bradleysummers.ems.enums.EntityType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Record of a deleted employee or department, so the change feed can report deletions.
+ */
+@Entity
+@Table(name = "tombstones")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Tombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private EntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @CreationTimestamp
+    @Column(name = "deleted_at", nullable = false, updatable = false)
+    private LocalDateTime deletedAt;
+
+    // Set by the trigger in V12 to the id of the deleting transaction; the change feed's cursor
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private long changeXid;
+}
@@ -0,0 +1,7 @@
+package dev.bradleysummers.ems.enums;
+
+public enum ChangeAction {
+    CREATED,
+    UPDATED,
+    DELETED
+}
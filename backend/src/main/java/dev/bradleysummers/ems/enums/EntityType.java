@@ -0,0 +1,6 @@
+package dev.bradleysummers.ems.enums;
+
+public enum EntityType {
+    EMPLOYEE,
+    DEPARTMENT
+}
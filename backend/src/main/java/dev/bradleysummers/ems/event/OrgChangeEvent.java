@@ -0,0 +1,19 @@
+package dev.bradleysummers.ems.event;
+
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+
+/**
+ * Published by the employee and department services whenever a row changes.
+ * Listeners that need committed data use {@code @TransactionalEventListener(AFTER_COMMIT)}.
+ */
+public record OrgChangeEvent(EntityType entityType, ChangeAction action, Long id, Long version) {
+
+    public static OrgChangeEvent employee(ChangeAction action, Long id, Long version) {
+        return new OrgChangeEvent(EntityType.EMPLOYEE, action, id, version);
+    }
+
+    public static OrgChangeEvent department(ChangeAction action, Long id, Long version) {
+        return new OrgChangeEvent(EntityType.DEPARTMENT, action, id, version);
+    }
+}
@@ -0,0 +1,146 @@
+package dev.bradleysummers.ems.event;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Pushes committed {@link OrgChangeEvent}s to connected clients over Server-Sent Events.
+ * <p>
+ * Writers never touch a socket: publishing only offers the event to each subscriber's
+ * bounded queue. Each subscriber is drained on its own virtual thread, and a subscriber
+ * whose queue overflows is disconnected so it reconnects and resynchronises instead of
+ * holding memory or slowing anyone else down.
+ */
+@Slf4j
+@Component
+public class OrgChangeStream {
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${ems.events.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${ems.events.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(timeoutMs));
+    }
+
+    /**
+     * Registers an emitter the caller created, so its timeout and callbacks can be chosen
+     * before any event is sent to it.
+     */
+    public SseEmitter subscribe(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(bufferSize));
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChange(OrgChangeEvent event) {
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.queue.offer(event)) {
+                log.debug("Disconnecting slow event subscriber after {} buffered events", bufferSize);
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                continue;
+            }
+            scheduleDrain(subscriber);
+        }
+    }
+
+    // Comment frames keep idle connections open through proxies and reveal dead clients
+    @Scheduled(fixedDelayString = "${ems.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            senders.execute(() -> send(subscriber, SseEmitter.event().comment("keep-alive")));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        senders.shutdown();
+    }
+
+    private void scheduleDrain(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            List<OrgChangeEvent> batch = new ArrayList<>();
+            while (subscriber.queue.drainTo(batch) > 0) {
+                for (OrgChangeEvent event : batch) {
+                    if (!send(subscriber, SseEmitter.event()
+                            .name("change")
+                            .data(event, MediaType.APPLICATION_JSON))) {
+                        return;
+                    }
+                }
+                batch.clear();
+            }
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // An event may have been queued after the last drainTo but before the flag was cleared
+        if (!subscriber.queue.isEmpty()) {
+            scheduleDrain(subscriber);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        // A lock rather than synchronized: a virtual thread blocked on a slow socket inside a
+        // monitor pins its carrier and can stall every other subscriber's sender
+        subscriber.sendLock.lock();
+        try {
+            subscriber.emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        } finally {
+            subscriber.sendLock.unlock();
+        }
+    }
+
+    private record Subscriber(SseEmitter emitter, BlockingQueue<OrgChangeEvent> queue, AtomicBoolean draining,
+                              Lock sendLock) {
+        Subscriber(SseEmitter emitter, BlockingQueue<OrgChangeEvent> queue) {
+            this(emitter, queue, new AtomicBoolean(), new ReentrantLock());
+        }
+    }
+}
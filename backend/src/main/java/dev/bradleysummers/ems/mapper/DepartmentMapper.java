@@ -0,0 +1,44 @@
+package dev.bradleysummers.ems.mapper;
+
+import dev.bradleysummers.ems.dto.DepartmentDto;
+import dev.bradleysummers.ems.dto.DepartmentStatsDto;
+import dev.bradleysummers.ems.dto.DepartmentWithStatsDto;
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.DepartmentStats;
+import dev.bradleysummers.ems.enums.Role;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+public class DepartmentMapper {
+
+    public static DepartmentWithStatsDto toDto(Department department, DepartmentStats stats) {
+        return new DepartmentWithStatsDto(department, toStatsDto(stats));
+    }
+
+    public static DepartmentDto toRefDto(Department department) {
+        DepartmentDto dto = new DepartmentDto();
+        dto.setId(department.getId());
+        dto.setName(department.getName());
+        return dto;
+    }
+
+    public static DepartmentStatsDto toStatsDto(DepartmentStats stats) {
+        DepartmentStatsDto dto = new DepartmentStatsDto();
+        Map<Role, Long> byRole = new EnumMap<>(Role.class);
+        if (stats != null) {
+            dto.setTotal(stats.getTotal());
+            dto.setActive(stats.getActive());
+            byRole.put(Role.ADMIN, stats.getAdmins());
+            byRole.put(Role.EMPLOYEE, stats.getEmployees());
+            byRole.put(Role.GUEST, stats.getGuests());
+        } else {
+            // Every department gets a row from its insert trigger; report zeros rather than fail
+            for (Role role : Role.values()) {
+                byRole.put(role, 0L);
+            }
+        }
+        dto.setByRole(byRole);
+        return dto;
+    }
+}
@@ -1,11 +1,21 @@
 package dev.bradleysummers.ems.mapper;
 
-import dev.bradleysummers.ems.dto.DepartmentDto;
+import dev.bradleysummers.ems.dto.EmployeeRefDto;
 import dev.bradleysummers.ems.dto.EmployeeRequestDto;
 import dev.bradleysummers.ems.dto.EmployeeResponseDto;
 import dev.bradleysummers.ems.dto.EmployeeSummaryDto;
+import dev.bradleysummers.ems.dto.NormalizedEmployeeListDto;
 import dev.bradleysummers.ems.entity.Department;
 import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.repository.EmployeeField;
+import jakarta.persistence.Tuple;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class EmployeeMapper {
 
@@ -34,13 +44,10 @@ public class EmployeeMapper {
         dto.setJobTitle(employee.getJobTitle());
         dto.setCreatedAt(employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null);
         dto.setUpdatedAt(employee.getUpdatedAt() != null ? employee.getUpdatedAt().toString() : null);
+        dto.setVersion(employee.getVersion());
 
         if (employee.getDepartment() != null) {
-            Department dept = employee.getDepartment();
-            DepartmentDto deptDto = new DepartmentDto();
-            deptDto.setId(dept.getId());
-            deptDto.setName(dept.getName());
-            dto.setDepartment(deptDto);
+            dto.setDepartment(DepartmentMapper.toRefDto(employee.getDepartment()));
         }
 
         if (employee.getManager() != null) {
@@ -57,6 +64,42 @@ public class EmployeeMapper {
         return dto;
     }
 
+    /**
+     * Builds the normalized list shape in a single pass, creating each referenced
+     * department and manager DTO only once.
+     */
+    public static NormalizedEmployeeListDto toNormalizedList(List<Employee> employees) {
+        NormalizedEmployeeListDto list = new NormalizedEmployeeListDto();
+        for (Employee employee : employees) {
+            EmployeeRefDto dto = new EmployeeRefDto();
+            dto.setId(employee.getId());
+            dto.setActive(employee.isActive());
+            dto.setEmail(employee.getEmail());
+            dto.setRole(employee.getRole());
+            dto.setFirstName(employee.getFirstName());
+            dto.setLastName(employee.getLastName());
+            dto.setJobTitle(employee.getJobTitle());
+            dto.setCreatedAt(employee.getCreatedAt() != null ? employee.getCreatedAt().toString() : null);
+            dto.setUpdatedAt(employee.getUpdatedAt() != null ? employee.getUpdatedAt().toString() : null);
+            dto.setVersion(employee.getVersion());
+
+            Department dept = employee.getDepartment();
+            if (dept != null) {
+                dto.setDepartmentId(dept.getId());
+                list.getDepartments().computeIfAbsent(dept.getId(), id -> DepartmentMapper.toRefDto(dept));
+            }
+
+            Employee manager = employee.getManager();
+            if (manager != null) {
+                dto.setManagerId(manager.getId());
+                list.getManagers().computeIfAbsent(manager.getId(), id -> toSummaryDto(manager));
+            }
+
+            list.getEmployees().add(dto);
+        }
+        return list;
+    }
+
     public static EmployeeSummaryDto toSummaryDto(Employee employee) {
         EmployeeSummaryDto dto = new EmployeeSummaryDto();
         dto.setId(employee.getId());
@@ -66,4 +109,39 @@ public class EmployeeMapper {
         dto.setJobTitle(employee.getJobTitle());
         return dto;
     }
+
+    /**
+     * Renders rows from {@link dev.bradleysummers.ems.repository.EmployeeFieldsRepository} as
+     * {@link EmployeeResponseDto}s cut down to the requested fields: same property names, same
+     * nesting and same value formats, just without the properties that were not asked for.
+     */
+    public static List<Map<String, Object>> toSparseDtos(List<Tuple> rows, Set<EmployeeField> fields) {
+        List<Map<String, Object>> dtos = new ArrayList<>(rows.size());
+        for (Tuple row : rows) {
+            Map<String, Object> dto = new LinkedHashMap<>();
+            for (EmployeeField field : fields) {
+                List<String> paths = field.getPaths();
+                if (paths.size() == 1 && paths.get(0).indexOf('.') < 0) {
+                    dto.put(field.getProperty(), sparseValue(row.get(paths.get(0))));
+                    continue;
+                }
+                // An association: null when the join found nothing, as in the full DTO
+                Map<String, Object> nested = null;
+                if (row.get(paths.get(0)) != null) {
+                    nested = new LinkedHashMap<>();
+                    for (String path : paths) {
+                        nested.put(path.substring(path.indexOf('.') + 1), sparseValue(row.get(path)));
+                    }
+                }
+                dto.put(field.getProperty(), nested);
+            }
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    // Timestamps are strings in the full DTO too
+    private static Object sparseValue(Object value) {
+        return value instanceof LocalDateTime timestamp ? timestamp.toString() : value;
+    }
 }
@@ -0,0 +1,22 @@
+package dev.bradleysummers.ems.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A change as handed to an {@link OutboxSink}. {@code id} is unique and the same on
+ * redelivery, so consumers can use it to skip duplicates. It increases with commit order
+ * for changes to the same entity only; compare ids of one entity, not across entities.
+ */
+public record OutboxMessage(
+        long id,
+        EntityType entityType,
+        ChangeAction action,
+        long entityId,
+        Long entityVersion,
+        @JsonRawValue String payload,
+        LocalDateTime createdAt) {
+}
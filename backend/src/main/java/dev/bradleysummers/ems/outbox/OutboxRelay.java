@@ -0,0 +1,154 @@
+package dev.bradleysummers.ems.outbox;
+
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves committed changes from {@code outbox_events} to the configured {@link OutboxSink}.
+ * <p>
+ * Each pass takes a transaction-scoped advisory lock, so only one replica relays at a
+ * time, then publishes the oldest rows in id order and deletes them in the same
+ * transaction. If the sink fails, the transaction rolls back and the batch is retried on
+ * the next pass.
+ * <p>
+ * Id order is commit order for changes to the same entity (see {@link OutboxWriter}), not
+ * across entities: a lower id can commit after a batch with higher ids has been published,
+ * and is then published in a later batch. Waiting for every lower id would stall the relay
+ * behind any slow transaction, and no consumer needs a total order.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    // Arbitrary application-wide key for pg_try_advisory_xact_lock
+    private static final long RELAY_LOCK = 0x656d735f6f7574L;
+
+    private static final RowMapper<OutboxMessage> MESSAGE = (rs, rowNum) -> new OutboxMessage(
+            rs.getLong("id"),
+            EntityType.valueOf(rs.getString("entity_type")),
+            ChangeAction.valueOf(rs.getString("action")),
+            rs.getLong("entity_id"),
+            rs.getObject("entity_version", Long.class),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxSink sink;
+    private final int batchSize;
+
+    private final Counter published;
+    private final Timer deliveryLag;
+    private final Timer publishTime;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingMillis = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       PlatformTransactionManager transactionManager,
+                       OutboxSink sink,
+                       MeterRegistry meterRegistry,
+                       @Value("${ems.outbox.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sink = sink;
+        this.batchSize = batchSize;
+
+        this.published = Counter.builder("ems.outbox.published")
+                .description("Outbox messages accepted by the sink")
+                .register(meterRegistry);
+        this.deliveryLag = Timer.builder("ems.outbox.delivery.lag")
+                .description("Time from a change committing to the sink accepting it")
+                .register(meterRegistry);
+        this.publishTime = Timer.builder("ems.outbox.publish")
+                .description("Time the sink takes to accept one batch")
+                .register(meterRegistry);
+        Gauge.builder("ems.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox messages waiting to be published, as of the last pass")
+                .register(meterRegistry);
+        Gauge.builder("ems.outbox.oldest.age", oldestPendingMillis, age -> age.get() / 1000.0)
+                .description("Age in seconds of the oldest unpublished message, as of the last pass")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ems.outbox.poll-ms:1000}")
+    public void relay() {
+        try {
+            // Keep going while full batches come back, so a backlog drains without waiting a tick
+            Integer count;
+            do {
+                count = transactionTemplate.execute(status -> relayBatch());
+            } while (count != null && count == batchSize);
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay failed, retrying on the next pass: {}", e.getMessage());
+        }
+    }
+
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("select pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK);
+        if (!Boolean.TRUE.equals(locked)) {
+            // Another replica is relaying
+            return 0;
+        }
+
+        List<OutboxMessage> batch = jdbcTemplate.query(
+                "select id, entity_type, action, entity_id, entity_version, payload, created_at " +
+                "from outbox_events order by id limit ?", MESSAGE, batchSize);
+        updateBacklog(batch);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        publishTime.record(() -> {
+            try {
+                sink.publish(batch);
+            } catch (Exception e) {
+                throw new IllegalStateException("Outbox sink rejected batch starting at id " + batch.get(0).id(), e);
+            }
+        });
+
+        // Delete exactly what was sent: a lower id can still commit after this batch was read
+        Long[] ids = batch.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(con -> {
+            var statement = con.prepareStatement("delete from outbox_events where id = any(?)");
+            statement.setArray(1, con.createArrayOf("bigint", ids));
+            return statement;
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxMessage message : batch) {
+            deliveryLag.record(Duration.between(message.createdAt(), now));
+        }
+        published.increment(batch.size());
+        return batch.size();
+    }
+
+    private void updateBacklog(List<OutboxMessage> batch) {
+        if (batch.isEmpty()) {
+            pending.set(0);
+            oldestPendingMillis.set(0);
+            return;
+        }
+        Long count = jdbcTemplate.queryForObject("select count(*) from outbox_events", Long.class);
+        pending.set(count != null ? count : 0);
+        oldestPendingMillis.set(Duration.between(batch.get(0).createdAt(), LocalDateTime.now()).toMillis());
+    }
+}
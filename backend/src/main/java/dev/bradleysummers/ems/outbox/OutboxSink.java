@@ -0,0 +1,20 @@
+package dev.bradleysummers.ems.outbox;
+
+import java.util.List;
+
+/**
+ * Where {@link OutboxRelay} delivers changes, chosen with {@code ems.outbox.sink}.
+ * <p>
+ * Batches arrive in outbox id order and are retried until {@link #publish} returns normally,
+ * so delivery is at least once.
+ * <p>
+ * Ordering is per entity only: changes to the same entity are always delivered in the order
+ * they were committed. Ids are taken before commit, so changes to different entities from
+ * concurrent transactions can arrive in a different order from their commits, and a change
+ * can be delivered after one with a higher id. Consumers must not read a gap in the ids as a
+ * lost message, or rely on ordering across entities.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,72 @@
+package dev.bradleysummers.ems.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.DepartmentRepository;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Inserts an {@code outbox_events} row for every change inside the transaction that made
+ * it, so a change is delivered downstream if and only if it commits.
+ * <p>
+ * The row is inserted only after the transaction's changes are flushed, while it holds the
+ * row locks on everything it changed. A later change to the same entity has to wait for
+ * this transaction to commit before it can lock the row, so it always gets a higher outbox
+ * id. That is what makes id order match commit order per entity (see {@link OutboxSink}).
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private static final String INSERT_SQL = "insert into outbox_events " +
+            "(entity_type, action, entity_id, entity_version, payload, created_at) " +
+            "values (?, ?, ?, ?, ?::jsonb, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmployeeRepository employeeRepository;
+    private final DepartmentRepository departmentRepository;
+    private final EntityManager entityManager;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onChange(OrgChangeEvent event) {
+        // Deletes are otherwise only flushed at commit, after the outbox id was taken
+        entityManager.flush();
+        jdbcTemplate.update(INSERT_SQL,
+                event.entityType().name(),
+                event.action().name(),
+                event.id(),
+                event.version(),
+                payload(event),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // The entity is already in the persistence context, so this does not hit the database
+    private String payload(OrgChangeEvent event) {
+        if (event.action() == ChangeAction.DELETED) {
+            return null;
+        }
+        Optional<?> body = event.entityType() == EntityType.EMPLOYEE
+                ? employeeRepository.findById(event.id()).map(EmployeeMapper::toDto)
+                : departmentRepository.findById(event.id());
+        try {
+            return body.isPresent() ? objectMapper.writeValueAsString(body.get()) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload for " + event, e);
+        }
+    }
+}
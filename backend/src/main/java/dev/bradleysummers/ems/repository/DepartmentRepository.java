@@ -1,7 +1,21 @@
 package dev.bradleysummers.ems.repository;
 
 import dev.bradleysummers.ems.entity.Department;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface DepartmentRepository extends JpaRepository<Department, Long> {
+
+    /** Departments after the cursor, as {@link EmployeeRepository#findChangedSince} for employees. */
+    @Query("select d from Department d " +
+            "where (d.changeXid, d.id) > (:afterXid, :afterId) and d.changeXid < :horizon " +
+            "order by d.changeXid, d.id")
+    List<Department> findChangedSince(@Param("afterXid") long afterXid,
+                                      @Param("afterId") long afterId,
+                                      @Param("horizon") long horizon,
+                                      Pageable pageable);
 }
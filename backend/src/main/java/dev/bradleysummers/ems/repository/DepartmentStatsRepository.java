@@ -0,0 +1,7 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.entity.DepartmentStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DepartmentStatsRepository extends JpaRepository<DepartmentStats, Long> {
+}
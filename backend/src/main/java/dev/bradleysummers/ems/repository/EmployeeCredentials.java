@@ -0,0 +1,16 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.enums.Role;
+
+/**
+ * Projection with just the columns authentication needs. Every column is part of the
+ * {@code uk_employees_email_lower} index so the lookup can be served as an index-only scan.
+ */
+public interface EmployeeCredentials {
+    Long getId();
+    String getEmail();
+    String getPassword();
+    Role getRole();
+    boolean isActive();
+    long getTokenVersion();
+}
@@ -0,0 +1,66 @@
+package dev.bradleysummers.ems.repository;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The top-level properties of {@code EmployeeResponseDto} a client can ask for with
+ * {@code fields=}. Each maps to the entity attribute paths that produce it; the paths double
+ * as JSON paths, since the DTO uses the entity's attribute names.
+ */
+public enum EmployeeField {
+    ID("id", "id"),
+    ACTIVE("active", "active"),
+    EMAIL("email", "email"),
+    ROLE("role", "role"),
+    FIRST_NAME("firstName", "firstName"),
+    LAST_NAME("lastName", "lastName"),
+    JOB_TITLE("jobTitle", "jobTitle"),
+    CREATED_AT("createdAt", "createdAt"),
+    UPDATED_AT("updatedAt", "updatedAt"),
+    VERSION("version", "version"),
+    DEPARTMENT("department", "department.id", "department.name"),
+    MANAGER("manager", "manager.id", "manager.firstName", "manager.lastName", "manager.email", "manager.jobTitle");
+
+    private final String property;
+    private final List<String> paths;
+
+    EmployeeField(String property, String... paths) {
+        this.property = property;
+        this.paths = List.of(paths);
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * Parses a comma-separated list of property names, e.g. {@code firstName,lastName,department}.
+     * Unknown names are rejected rather than ignored, so a typo is not mistaken for an empty field.
+     */
+    public static Set<EmployeeField> parse(String fields) {
+        Set<EmployeeField> parsed = EnumSet.noneOf(EmployeeField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(fromProperty(trimmed));
+        }
+        return parsed;
+    }
+
+    private static EmployeeField fromProperty(String property) {
+        for (EmployeeField field : values()) {
+            if (field.property.equals(property)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown employee field: " + property);
+    }
+}
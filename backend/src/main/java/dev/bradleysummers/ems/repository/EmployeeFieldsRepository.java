@@ -0,0 +1,26 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.entity.Employee;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Employee reads that select only some columns: sparse {@link EmployeeField} tuples, with the
+ * department and manager joined only when asked for, and org chart rows. Both take a filter
+ * from {@link EmployeeSpecifications}.
+ */
+public interface EmployeeFieldsRepository {
+
+    /**
+     * One tuple per matching employee, ordered by id, with an element aliased by each
+     * requested path. The id, the version and the version of every joined association are
+     * always included, so callers can build an ETag whichever fields were asked for.
+     */
+    List<Tuple> findFields(Set<EmployeeField> fields, Specification<Employee> spec);
+
+    /** The org chart columns of every matching employee, ordered by id. */
+    List<OrgChartRow> findOrgChartRows(Specification<Employee> spec);
+}
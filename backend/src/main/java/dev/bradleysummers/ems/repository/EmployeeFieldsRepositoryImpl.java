@@ -0,0 +1,79 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class EmployeeFieldsRepositoryImpl implements EmployeeFieldsRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Tuple> findFields(Set<EmployeeField> fields, Specification<Employee> spec) {
+        Set<String> paths = new LinkedHashSet<>(List.of("id", "version"));
+        for (EmployeeField field : fields) {
+            paths.addAll(field.getPaths());
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> employee = query.from(Employee.class);
+
+        // Left joins, so employees without a department or manager are kept
+        Map<String, From<Employee, ?>> joins = new LinkedHashMap<>();
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String path : paths) {
+            int dot = path.indexOf('.');
+            if (dot < 0) {
+                selections.add(employee.get(path).alias(path));
+            } else {
+                From<Employee, ?> join = joins.computeIfAbsent(path.substring(0, dot),
+                        association -> employee.join(association, JoinType.LEFT));
+                selections.add(join.get(path.substring(dot + 1)).alias(path));
+            }
+        }
+        joins.forEach((association, join) ->
+                selections.add(join.get("version").alias(association + ".version")));
+
+        query.multiselect(selections)
+                .where(spec.toPredicate(employee, query, cb))
+                .orderBy(cb.asc(employee.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<OrgChartRow> findOrgChartRows(Specification<Employee> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrgChartRow> query = cb.createQuery(OrgChartRow.class);
+        Root<Employee> employee = query.from(Employee.class);
+        Join<Employee, Department> department = employee.join("department", JoinType.LEFT);
+
+        // A constructor expression, so no entities (or their eager associations) are loaded
+        query.select(cb.construct(OrgChartRow.class,
+                        employee.get("id"), employee.get("firstName"), employee.get("lastName"),
+                        employee.get("role"), department.get("id"), department.get("name"),
+                        employee.get("manager").get("id"), employee.get("jobTitle"),
+                        employee.get("createdAt"), employee.get("updatedAt")))
+                .where(spec.toPredicate(employee, query, cb))
+                .orderBy(cb.asc(employee.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,64 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.enums.Role;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads {@code employee_history}, which is written only by the {@code trg_employees_history}
+ * trigger (see V7__employee_history.sql and V13__employee_history_no_overlap.sql). Uses SQL
+ * directly because range types have no JPA mapping.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EmployeeHistoryRepository {
+
+    private static final RowMapper<OrgChartRow> ORG_CHART_ROW = (rs, rowNum) -> new OrgChartRow(
+            rs.getLong("employee_id"),
+            rs.getString("first_name"),
+            rs.getString("last_name"),
+            Role.valueOf(rs.getString("role")),
+            rs.getObject("department_id", Long.class),
+            rs.getString("department_name"),
+            rs.getObject("manager_id", Long.class),
+            rs.getString("job_title"),
+            toLocalDateTime(rs.getTimestamp("created_at")),
+            toLocalDateTime(rs.getTimestamp("valid_from")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The org chart rows as they were at {@code asOf}, found through the GiST index on
+     * {@code valid_during}. {@code updatedAt} is when that version became current.
+     * The optional filters restrict the result to one department or one employee.
+     */
+    public List<OrgChartRow> findOrgChartRowsAsOf(LocalDateTime asOf, Long departmentId, Long employeeId) {
+        StringBuilder sql = new StringBuilder(
+                "select employee_id, first_name, last_name, role, department_id, department_name, " +
+                "manager_id, job_title, created_at, lower(valid_during) as valid_from " +
+                "from employee_history where valid_during @> ?::timestamp");
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(asOf));
+        if (departmentId != null) {
+            sql.append(" and department_id = ?");
+            args.add(departmentId);
+        }
+        if (employeeId != null) {
+            sql.append(" and employee_id = ?");
+            args.add(employeeId);
+        }
+        sql.append(" order by employee_id");
+        return jdbcTemplate.query(sql.toString(), ORG_CHART_ROW, args.toArray());
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
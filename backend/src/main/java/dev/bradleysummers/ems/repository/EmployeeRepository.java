@@ -1,13 +1,87 @@
 package dev.bradleysummers.ems.repository;
 
 import dev.bradleysummers.ems.entity.Employee;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
-    Optional<Employee> findByEmail(String email);
+/**
+ * Employee lookups that return entities fetch the department and manager in the same query,
+ * since every response shape includes them and sessions are closed before rendering.
+ */
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeFieldsRepository {
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    List<Employee> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    Optional<Employee> findById(Long id);
+
+    /** Employees matching a filter built from {@link EmployeeSpecifications}. */
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    List<Employee> findAll(Specification<Employee> spec);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    List<Employee> findAll(Specification<Employee> spec, Sort sort);
+
+    @Override
+    @EntityGraph(attributePaths = {"department", "manager"})
+    Optional<Employee> findOne(Specification<Employee> spec);
+
+    @EntityGraph(attributePaths = {"department", "manager"})
+    @Query("select e from Employee e where lower(e.email) = lower(:email)")
+    Optional<Employee> findByEmail(@Param("email") String email);
+
+    @Query("select e.id as id, e.email as email, e.password as password, e.role as role, e.active as active, " +
+            "e.tokenVersion as tokenVersion " +
+            "from Employee e where lower(e.email) = lower(:email)")
+    Optional<EmployeeCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    /**
+     * Employees last written after the {@code (changeXid, id)} cursor by transactions older
+     * than {@code horizon} (see {@link #findChangeHorizon()}), in cursor order. Served by the
+     * {@code idx_employees_change_xid_id} index.
+     */
+    @EntityGraph(attributePaths = {"department", "manager"})
+    @Query("select e from Employee e " +
+            "where (e.changeXid, e.id) > (:afterXid, :afterId) and e.changeXid < :horizon " +
+            "order by e.changeXid, e.id")
+    List<Employee> findChangedSince(@Param("afterXid") long afterXid,
+                                    @Param("afterId") long afterId,
+                                    @Param("horizon") long horizon,
+                                    Pageable pageable);
+
+    /**
+     * The oldest transaction id still running. Every transaction below it has committed or
+     * rolled back, so rows they wrote cannot appear or change behind a change feed cursor.
+     */
+    @Query(value = "select pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long findChangeHorizon();
+
+    /**
+     * Whether {@code employeeId} is {@code managerId} or one of their managers, walking up
+     * the management chain in the database rather than through lazy manager proxies.
+     */
+    @Query(value = "with recursive chain(id, manager_id) as (" +
+            "select id, manager_id from employees where id = :managerId " +
+            "union " +
+            "select e.id, e.manager_id from employees e join chain c on e.id = c.manager_id) " +
+            "select exists(select 1 from chain where id = :employeeId)", nativeQuery = true)
+    boolean isInManagementChain(@Param("employeeId") Long employeeId, @Param("managerId") Long managerId);
+
     List<Employee> findByManagerId(Long managerId);
     List<Employee> findByDepartmentId(Long departmentId);
 }
@@ -0,0 +1,76 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Filters on employees that become part of the query's WHERE clause, so visibility and list
+ * filters are applied by the database rather than to rows already loaded. Filters given a
+ * {@code null} argument match everyone, which lets optional request parameters be combined
+ * with {@link Specification#and} without checking each one.
+ */
+public final class EmployeeSpecifications {
+
+    private EmployeeSpecifications() {
+    }
+
+    /**
+     * The only employee the caller can see, or {@code null} for callers who see everyone:
+     * admins and guests see the whole organisation, everyone else only themselves.
+     */
+    public static Long restrictedTo(AuthenticatedEmployee caller) {
+        boolean seesEveryone = caller.role() == Role.ADMIN || caller.role() == Role.GUEST;
+        return seesEveryone ? null : caller.id();
+    }
+
+    /** The employees the caller is allowed to see. */
+    public static Specification<Employee> visibleTo(AuthenticatedEmployee caller) {
+        return visibleTo(restrictedTo(caller));
+    }
+
+    /** The employees visible to a caller restricted as described by {@link #restrictedTo}. */
+    public static Specification<Employee> visibleTo(Long restrictedTo) {
+        return restrictedTo == null ? everyone() : hasId(restrictedTo);
+    }
+
+    public static Specification<Employee> hasId(Long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Employee> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return everyone();
+        }
+        return (root, query, cb) -> ids.isEmpty() ? cb.disjunction() : root.get("id").in(ids);
+    }
+
+    public static Specification<Employee> hasRole(Collection<Role> roles) {
+        if (roles == null) {
+            return everyone();
+        }
+        return (root, query, cb) -> roles.isEmpty() ? cb.disjunction() : root.get("role").in(roles);
+    }
+
+    // Compares the foreign key column, so no join to departments is added
+    public static Specification<Employee> inDepartment(Long departmentId) {
+        if (departmentId == null) {
+            return everyone();
+        }
+        return (root, query, cb) -> cb.equal(root.get("department").get("id"), departmentId);
+    }
+
+    public static Specification<Employee> isActive(Boolean active) {
+        if (active == null) {
+            return everyone();
+        }
+        return (root, query, cb) -> cb.equal(root.get("active"), active);
+    }
+
+    private static Specification<Employee> everyone() {
+        return (root, query, cb) -> cb.conjunction();
+    }
+}
@@ -0,0 +1,22 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.enums.Role;
+
+import java.time.LocalDateTime;
+
+/**
+ * Just the columns the org chart shows, read with a constructor expression so no
+ * {@code Employee} entities (or their eager associations) are loaded.
+ */
+public record OrgChartRow(
+        Long id,
+        String firstName,
+        String lastName,
+        Role role,
+        Long departmentId,
+        String departmentName,
+        Long managerId,
+        String jobTitle,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
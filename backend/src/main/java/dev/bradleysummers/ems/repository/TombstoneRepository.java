@@ -0,0 +1,21 @@
+package dev.bradleysummers.ems.repository;
+
+import dev.bradleysummers.ems.entity.Tombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface TombstoneRepository extends JpaRepository<Tombstone, Long> {
+
+    /** Tombstones after the cursor, as {@link EmployeeRepository#findChangedSince} for employees. */
+    @Query("select t from Tombstone t " +
+            "where (t.changeXid, t.id) > (:afterXid, :afterId) and t.changeXid < :horizon " +
+            "order by t.changeXid, t.id")
+    List<Tombstone> findChangedSince(@Param("afterXid") long afterXid,
+                                     @Param("afterId") long afterId,
+                                     @Param("horizon") long horizon,
+                                     Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package dev.bradleysummers.ems.security;
+
+import dev.bradleysummers.ems.enums.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.security.Principal;
+
+/**
+ * The caller, as read from the verified claims of their access token. Lets authorization
+ * checks use the caller's id and role without loading the employee.
+ */
+public record AuthenticatedEmployee(Long id, String email, Role role) implements Principal {
+
+    /** The caller of the current request. */
+    public static AuthenticatedEmployee current() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !(auth.getPrincipal() instanceof AuthenticatedEmployee employee)) {
+            throw new RuntimeException("Current user not found");
+        }
+        return employee;
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
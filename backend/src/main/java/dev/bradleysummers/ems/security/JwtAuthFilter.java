@@ -1,26 +1,28 @@
 package dev.bradleysummers.ems.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final TokenRevocationList tokenRevocationList;
 
     @Override
     protected void doFilterInternal(
@@ -30,8 +32,6 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
         // Check for token in Authorization header
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
@@ -39,19 +39,26 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        jwt = authHeader.substring(7); // Strip "Bearer "
-        userEmail = jwtService.extractUsername(jwt);
-
-        // If user not already authenticated
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+        final String jwt = authHeader.substring(7); // Strip "Bearer "
+        final JwtService.VerifiedToken token;
+        try {
+            token = jwtService.verify(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            // Leave the request unauthenticated; protected endpoints reject it
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-            if (jwtService.isTokenValid(jwt, userDetails.getUsername())) {
+        // If user not already authenticated and the token was not revoked at logout
+        if (SecurityContextHolder.getContext().getAuthentication() == null
+                && !tokenRevocationList.isRevoked(token.tokenId())) {
+            // Role changes, deactivation and password resets bump the version, revoking older tokens
+            if (tokenVersionService.currentVersion(token.employee().id()) == token.tokenVersion()) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
-                                userDetails,
+                                token.employee(),
                                 null,
-                                userDetails.getAuthorities()
+                                List.of(new SimpleGrantedAuthority("ROLE_" + token.employee().role().name()))
                         );
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
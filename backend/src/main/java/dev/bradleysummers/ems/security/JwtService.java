@@ -1,11 +1,18 @@
 package dev.bradleysummers.ems.security;
 
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.EmployeeCredentials;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
@@ -13,7 +20,25 @@ public class JwtService {
 
     private static final String SECRET_KEY = "thisIsASecretKeyForJwtGenerationThatShouldBeAtLeast256Bits";
 
-    private final long EXPIRATION_TIME_MS = 1000 * 60 * 60 * 24; // 24 hours
+    // Claims carried alongside the email in "sub", so requests can be authorized without a lookup
+    static final String CLAIM_EMPLOYEE_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "tv";
+
+    // Short-lived; clients renew through /api/auth/refresh
+    private final Duration accessTokenTtl;
+
+    /** An access token whose signature and expiry have been checked. */
+    public record VerifiedToken(AuthenticatedEmployee employee, long tokenVersion, String tokenId, Instant expiresAt) {
+    }
+
+    public JwtService(@Value("${ems.auth.access-token-ttl:PT15M}") Duration accessTokenTtl) {
+        this.accessTokenTtl = accessTokenTtl;
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
 
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
@@ -40,21 +65,51 @@ public class JwtService {
                 .getBody();
     }
 
-    public String generateToken(String username) {
+    public String generateToken(EmployeeCredentials employee) {
+        return generateToken(employee.getId(), employee.getEmail(), employee.getRole(), employee.getTokenVersion());
+    }
+
+    public String generateToken(Employee employee) {
+        return generateToken(employee.getId(), employee.getEmail(), employee.getRole(), employee.getTokenVersion());
+    }
+
+    public String generateToken(AuthenticatedEmployee employee, long tokenVersion) {
+        return generateToken(employee.id(), employee.email(), employee.role(), tokenVersion);
+    }
+
+    private String generateToken(Long employeeId, String email, Role role, long tokenVersion) {
         return Jwts.builder()
-                .setSubject(username)
+                .setId(UUID.randomUUID().toString())
+                .setSubject(email)
+                .claim(CLAIM_EMPLOYEE_ID, employeeId)
+                .claim(CLAIM_ROLE, role.name())
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME_MS))
+                .setExpiration(new Date(System.currentTimeMillis() + accessTokenTtl.toMillis()))
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verifies the token and reads the caller from its claims. Throws {@link JwtException}
+     * if the token is invalid, expired, or was issued before the claims were added.
+     */
+    public VerifiedToken verify(String token) {
+        Claims claims = parseToken(token);
+        Long employeeId = claims.get(CLAIM_EMPLOYEE_ID, Long.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Long tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Long.class);
+        if (claims.getId() == null || claims.getSubject() == null || employeeId == null || role == null || tokenVersion == null) {
+            throw new MalformedJwtException("Token is missing employee claims");
+        }
+        try {
+            return new VerifiedToken(
+                    new AuthenticatedEmployee(employeeId, claims.getSubject(), Role.valueOf(role)),
+                    tokenVersion,
+                    claims.getId(),
+                    claims.getExpiration().toInstant());
+        } catch (IllegalArgumentException e) {
+            throw new MalformedJwtException("Token has an unknown role: " + role);
+        }
     }
 }
@@ -1,5 +1,6 @@
 package dev.bradleysummers.ems.security;
 
+import dev.bradleysummers.ems.entity.Employee;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
@@ -19,16 +20,16 @@ public class LoginAttemptService {
     private final Map<String, Attempt> attempts = new ConcurrentHashMap<>();
 
     public void loginSucceeded(String key) {
-        attempts.remove(key);
+        attempts.remove(Employee.normalizeEmail(key));
     }
 
     private boolean isAdmin(String key) {
         // Allow multiple admin emails as needed
-        String normalized = key.trim().toLowerCase();
-        return normalized.equals("admin@example.com") || normalized.equals("admin@initech.com");
+        return key.equals("admin@example.com") || key.equals("admin@initech.com");
     }
 
     public void loginFailed(String key) {
+        key = Employee.normalizeEmail(key);
         if (isAdmin(key)) return; // Do not lock out admin
         Attempt attempt = attempts.computeIfAbsent(key, k -> new Attempt());
         attempt.count++;
@@ -39,6 +40,7 @@ public class LoginAttemptService {
     }
 
     public boolean isBlocked(String key) {
+        key = Employee.normalizeEmail(key);
         if (isAdmin(key)) return false; // Never block admin
         Attempt attempt = attempts.get(key);
         if (attempt == null) return false;
@@ -0,0 +1,165 @@
+package dev.bradleysummers.ems.security;
+
+import dev.bradleysummers.ems.enums.Role;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens. Only a SHA-256 of each token is stored, every use
+ * replaces the token with a new one in the same family, and presenting a token that was
+ * already used revokes the whole family, since one of the two holders must be an attacker.
+ * <p>
+ * A family is bound to the employee's token version when it is issued. A password reset,
+ * role change or deactivation bumps the version, which ends the family along with the
+ * access tokens.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration refreshTokenTtl;
+
+    /**
+     * The employee a refresh token belonged to and their current token version, as read from
+     * the primary while rotating, and the token that replaces it. The new access token is
+     * built from these, so it never carries a version a lagging replica still has.
+     */
+    public record Rotation(AuthenticatedEmployee employee, long tokenVersion, String refreshToken) {
+    }
+
+    private record StoredToken(long id, long employeeId, UUID familyId, long tokenVersion, LocalDateTime expiresAt,
+                               LocalDateTime usedAt, LocalDateTime revokedAt, boolean active,
+                               long currentTokenVersion, String email, Role role) {
+    }
+
+    public RefreshTokenService(JdbcTemplate jdbcTemplate,
+                               @Value("${ems.auth.refresh-token-ttl:P14D}") Duration refreshTokenTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.refreshTokenTtl = refreshTokenTtl;
+    }
+
+    /**
+     * Starts a new token family, e.g. at login, bound to the token version the employee was
+     * authenticated with.
+     */
+    @Transactional
+    public String issue(Long employeeId, long tokenVersion) {
+        return insert(employeeId, UUID.randomUUID(), tokenVersion);
+    }
+
+    // The family revocation must commit even though the caller is rejected
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Rotation rotate(String refreshToken) {
+        List<StoredToken> rows = jdbcTemplate.query(
+                "select rt.id, rt.employee_id, rt.family_id, rt.token_version, rt.expires_at, rt.used_at, rt.revoked_at, " +
+                "e.active, e.token_version as current_token_version, e.email, e.role " +
+                "from refresh_tokens rt join employees e on e.id = rt.employee_id " +
+                "where rt.token_hash = ? for update of rt",
+                (rs, rowNum) -> new StoredToken(
+                        rs.getLong("id"),
+                        rs.getLong("employee_id"),
+                        rs.getObject("family_id", UUID.class),
+                        rs.getLong("token_version"),
+                        rs.getTimestamp("expires_at").toLocalDateTime(),
+                        toLocalDateTime(rs.getTimestamp("used_at")),
+                        toLocalDateTime(rs.getTimestamp("revoked_at")),
+                        rs.getBoolean("active"),
+                        rs.getLong("current_token_version"),
+                        rs.getString("email"),
+                        Role.valueOf(rs.getString("role"))),
+                hash(refreshToken));
+        if (rows.isEmpty()) {
+            throw invalid();
+        }
+
+        StoredToken stored = rows.get(0);
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.revokedAt() != null || stored.expiresAt().isBefore(now)) {
+            throw invalid();
+        }
+        if (stored.usedAt() != null) {
+            log.warn("Refresh token reuse for employee {}, revoking token family {}", stored.employeeId(), stored.familyId());
+            revokeFamily(stored.familyId(), now);
+            throw invalid();
+        }
+        if (!stored.active() || stored.tokenVersion() != stored.currentTokenVersion()) {
+            // Deactivated, or their password or role changed since the family was issued
+            revokeFamily(stored.familyId(), now);
+            throw invalid();
+        }
+
+        jdbcTemplate.update("update refresh_tokens set used_at = ? where id = ?", Timestamp.valueOf(now), stored.id());
+        return new Rotation(new AuthenticatedEmployee(stored.employeeId(), stored.email(), stored.role()),
+                stored.currentTokenVersion(),
+                insert(stored.employeeId(), stored.familyId(), stored.tokenVersion()));
+    }
+
+    /** Revokes the family the token belongs to, e.g. at logout. Unknown tokens are ignored. */
+    @Transactional
+    public void revoke(String refreshToken) {
+        jdbcTemplate.update("update refresh_tokens set revoked_at = ? " +
+                        "where family_id = (select family_id from refresh_tokens where token_hash = ?) and revoked_at is null",
+                Timestamp.valueOf(LocalDateTime.now()), hash(refreshToken));
+    }
+
+    @Scheduled(fixedDelayString = "${ems.auth.refresh-token-purge-ms:3600000}")
+    public void purgeExpired() {
+        jdbcTemplate.update("delete from refresh_tokens where expires_at < ?", Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private String insert(Long employeeId, UUID familyId, long tokenVersion) {
+        byte[] random = new byte[32];
+        RANDOM.nextBytes(random);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("insert into refresh_tokens (employee_id, family_id, token_version, token_hash, created_at, expires_at) " +
+                        "values (?, ?, ?, ?, ?, ?)",
+                employeeId, familyId, tokenVersion, hash(token), Timestamp.valueOf(now), Timestamp.valueOf(now.plus(refreshTokenTtl)));
+        return token;
+    }
+
+    private void revokeFamily(UUID familyId, LocalDateTime now) {
+        jdbcTemplate.update("update refresh_tokens set revoked_at = ? where family_id = ? and revoked_at is null",
+                Timestamp.valueOf(now), familyId);
+    }
+
+    // The tokens are 256 random bits, so an unsalted fast hash is enough to make a leaked table useless
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token is invalid or expired.");
+    }
+}
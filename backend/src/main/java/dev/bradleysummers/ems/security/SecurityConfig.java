@@ -1,5 +1,6 @@
 package dev.bradleysummers.ems.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,9 +33,17 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .cors(Customizer.withDefaults())
             .authorizeHttpRequests(auth -> auth
+                // Async dispatches (e.g. the SSE event stream) were authorized on the original request
+                .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+
                 // Public endpoints
+                .requestMatchers("/api/auth/me").authenticated()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/setup/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+
+                // Operational endpoints (metrics, cache statistics) are for admins only
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                 // Only ADMIN can delete departments
                 .requestMatchers("/api/departments/*/delete").hasRole("ADMIN")
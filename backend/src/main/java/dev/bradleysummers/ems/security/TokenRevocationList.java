@@ -0,0 +1,109 @@
+package dev.bradleysummers.ems.security;
+
+import dev.bradleysummers.ems.cache.PostgresChannelListener;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens revoked before they expire, keyed by {@code jti}, so the request path can
+ * reject them with a map lookup instead of a query.
+ * <p>
+ * Revocations are stored in {@code revoked_access_tokens} and announced with
+ * {@code pg_notify}, which every replica listens for. Entries are dropped once the token
+ * would have expired anyway, so the set never holds more than one access-token lifetime
+ * of logouts.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenRevocationList implements SmartLifecycle {
+
+    static final String CHANNEL = "ems_token_revocation";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${ems.cache.cluster-invalidation.enabled:true}")
+    private boolean broadcast;
+
+    // jti -> expiry in epoch millis
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private PostgresChannelListener listener;
+    private volatile boolean running;
+
+    public boolean isRevoked(String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    /** Revokes an access token on every replica once the surrounding transaction commits. */
+    @Transactional
+    public void revoke(String tokenId, Instant expiresAt) {
+        jdbcTemplate.update("insert into revoked_access_tokens (jti, expires_at) values (?, ?) on conflict do nothing",
+                tokenId, Timestamp.from(expiresAt));
+        // Applied locally right away; rejecting a token a little early is harmless
+        revoked.put(tokenId, expiresAt.toEpochMilli());
+        if (broadcast) {
+            jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, CHANNEL, tokenId + ":" + expiresAt.toEpochMilli());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ems.auth.revocation.purge-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revoked.values().removeIf(expiresAt -> expiresAt < now);
+        jdbcTemplate.update("delete from revoked_access_tokens where expires_at < ?", new Timestamp(now));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!broadcast) {
+            reload();
+            return;
+        }
+        // Revocations announced while we were not listening are picked up from the table
+        listener = new PostgresChannelListener(dataSourceProperties, CHANNEL, this::reload, this::apply);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void reload() {
+        jdbcTemplate.query("select jti, expires_at from revoked_access_tokens where expires_at >= ?",
+                rs -> {
+                    revoked.put(rs.getString("jti"), rs.getTimestamp("expires_at").getTime());
+                },
+                new Timestamp(System.currentTimeMillis()));
+    }
+
+    /** Applies a {@code jti:expiresAtMillis} revocation announced by a replica. */
+    public void apply(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        revoked.put(payload.substring(0, separator), Long.parseLong(payload.substring(separator + 1)));
+    }
+}
@@ -0,0 +1,35 @@
+package dev.bradleysummers.ems.security;
+
+import dev.bradleysummers.ems.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Looks up the token version an employee's access tokens must carry. Cached per employee
+ * and evicted on every employee change, locally and on other replicas through
+ * {@link dev.bradleysummers.ems.cache.ClusterCacheInvalidator}.
+ * <p>
+ * Misses load through the cache ({@code sync = true}) so that
+ * {@link dev.bradleysummers.ems.cache.GenerationCheckedCache} can drop a version read before
+ * an eviction that raced with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenVersionService {
+
+    /** Returned for deleted or deactivated employees; no token carries it. */
+    public static final long REVOKED = -1L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Cacheable(cacheNames = CacheConfig.TOKEN_VERSIONS, sync = true)
+    public Long currentVersion(Long employeeId) {
+        List<Long> versions = jdbcTemplate.queryForList(
+                "select token_version from employees where id = ? and active", Long.class, employeeId);
+        return versions.isEmpty() ? REVOKED : versions.get(0);
+    }
+}
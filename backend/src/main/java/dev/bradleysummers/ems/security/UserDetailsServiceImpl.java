@@ -1,6 +1,6 @@
 package dev.bradleysummers.ems.security;
 
-import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.repository.EmployeeCredentials;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.*;
@@ -14,7 +14,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        Employee employee = employeeRepository.findByEmail(email)
+        EmployeeCredentials employee = employeeRepository.findCredentialsByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with email: " + email));
 
         return User.builder()
@@ -0,0 +1,151 @@
+package dev.bradleysummers.ems.service;
+
+import dev.bradleysummers.ems.config.CacheConfig;
+import dev.bradleysummers.ems.dto.analytics.DepartmentHeadcountDto;
+import dev.bradleysummers.ems.dto.analytics.OrgAnalyticsDto;
+import dev.bradleysummers.ems.dto.analytics.RoleHeadcountDto;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Headcount and span-of-control figures computed in SQL, so no employees are loaded.
+ * <p>
+ * Results are cached per time bucket ({@code ems.analytics.bucket}): every request in the
+ * same bucket shares one computation, and concurrent misses wait for it rather than all
+ * running the queries.
+ */
+@Service
+public class AnalyticsService {
+
+    // One pass over idx_employees_department_role_active answers every headcount
+    private static final String HEADCOUNT_SQL =
+            "select department_id, role, active, count(*) from employees group by department_id, role, active";
+
+    private static final String DEPARTMENTS_SQL = "select id, name from departments order by name";
+
+    private static final String SPAN_SQL =
+            "select count(*), coalesce(avg(reports), 0), coalesce(max(reports), 0) " +
+            "from (select count(*) as reports from employees where manager_id is not null group by manager_id) s";
+
+    // Walks down from the top-level employees via idx_employees_manager_id_id. Employees caught
+    // in a reporting cycle are never reached from a root, so the walk always terminates.
+    private static final String DEPTH_SQL =
+            "with recursive chain (id, depth) as (" +
+            "  select id, 1 from employees where manager_id is null" +
+            "  union all" +
+            "  select e.id, c.depth + 1 from employees e join chain c on e.manager_id = c.id" +
+            ") select coalesce(max(depth), 0) from chain";
+
+    private final EmployeeRepository employeeRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate snapshot;
+    private final CacheManager cacheManager;
+    private final Duration bucket;
+
+    public AnalyticsService(EmployeeRepository employeeRepository,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            CacheManager cacheManager,
+                            @Value("${ems.analytics.bucket:PT1M}") Duration bucket) {
+        this.employeeRepository = employeeRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+        this.bucket = bucket;
+
+        // All queries read the same snapshot so the figures agree with each other
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    public OrgAnalyticsDto getAnalytics() {
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
+
+        // Only roles that can see every employee may see figures about all of them
+        if (currentUser.role() != Role.ADMIN && currentUser.role() != Role.GUEST) {
+            throw new RuntimeException("Only administrators can view org analytics");
+        }
+
+        long bucketIndex = System.currentTimeMillis() / Math.max(1, bucket.toMillis());
+        Cache cache = Objects.requireNonNull(cacheManager.getCache(CacheConfig.ANALYTICS));
+        return cache.get(bucketIndex, () -> snapshot.execute(status -> compute()));
+    }
+
+    private OrgAnalyticsDto compute() {
+        OrgAnalyticsDto analytics = new OrgAnalyticsDto();
+        analytics.setAsOf(LocalDateTime.now().toString());
+
+        Map<Long, DepartmentHeadcountDto> byDepartment = new LinkedHashMap<>();
+        jdbcTemplate.query(DEPARTMENTS_SQL, rs -> {
+            long id = rs.getLong(1);
+            byDepartment.put(id, new DepartmentHeadcountDto(id, rs.getString(2), 0, 0));
+        });
+
+        Map<Role, RoleHeadcountDto> byRole = new EnumMap<>(Role.class);
+        for (Role role : Role.values()) {
+            byRole.put(role, new RoleHeadcountDto(role, 0, 0));
+        }
+
+        jdbcTemplate.query(HEADCOUNT_SQL, rs -> {
+            long departmentId = rs.getLong(1);
+            boolean unassigned = rs.wasNull();
+            Role role = Role.valueOf(rs.getString(2));
+            boolean active = rs.getBoolean(3);
+            long count = rs.getLong(4);
+
+            analytics.setTotalEmployees(analytics.getTotalEmployees() + count);
+            if (active) {
+                analytics.setActiveEmployees(analytics.getActiveEmployees() + count);
+            }
+
+            RoleHeadcountDto roleCount = byRole.get(role);
+            roleCount.setTotal(roleCount.getTotal() + count);
+            if (active) {
+                roleCount.setActive(roleCount.getActive() + count);
+            }
+
+            if (unassigned) {
+                analytics.setUnassignedEmployees(analytics.getUnassignedEmployees() + count);
+                return;
+            }
+            // Same snapshot as the department query, so the foreign key guarantees a match
+            DepartmentHeadcountDto departmentCount = byDepartment.get(departmentId);
+            departmentCount.setTotal(departmentCount.getTotal() + count);
+            if (active) {
+                departmentCount.setActive(departmentCount.getActive() + count);
+            }
+        });
+        analytics.setInactiveEmployees(analytics.getTotalEmployees() - analytics.getActiveEmployees());
+
+        analytics.setByDepartment(new ArrayList<>(byDepartment.values()));
+        analytics.setByRole(new ArrayList<>(byRole.values()));
+
+        jdbcTemplate.query(SPAN_SQL, rs -> {
+            analytics.setManagers(rs.getLong(1));
+            analytics.setAverageSpanOfControl(Math.round(rs.getDouble(2) * 100) / 100.0);
+            analytics.setMaxSpanOfControl(rs.getLong(3));
+        });
+
+        Integer depth = jdbcTemplate.queryForObject(DEPTH_SQL, Integer.class);
+        analytics.setMaxChainDepth(depth != null ? depth : 0);
+
+        return analytics;
+    }
+}
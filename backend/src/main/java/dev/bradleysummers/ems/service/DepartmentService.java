@@ -1,13 +1,20 @@
 package dev.bradleysummers.ems.service;
 
 import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.DepartmentStats;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface DepartmentService {
     Department findById(Long id);
     List<Department> findAll();
+    List<Department> findAllById(Collection<Long> ids);
     Department create(Department department);
     Department update(Long id, Department updated);
     void delete(Long id);
+    DepartmentStats findStats(Long id);
+    Map<Long, DepartmentStats> findAllStats();
+    Map<Long, DepartmentStats> findStats(Collection<Long> ids);
 }
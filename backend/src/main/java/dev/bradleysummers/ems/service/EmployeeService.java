@@ -1,9 +1,13 @@
 package dev.bradleysummers.ems.service;
 
 import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.repository.EmployeeField;
+import jakarta.persistence.Tuple;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface EmployeeService {
 
@@ -11,7 +15,17 @@ public interface EmployeeService {
 
     Optional<Employee> findById(Long id);
 
-    List<Employee> findAll();
+    /**
+     * The employees matching {@code filter} (see {@code EmployeeSpecifications}) that the
+     * caller is allowed to see, in one query with visibility part of the WHERE clause.
+     */
+    List<Employee> findAll(Specification<Employee> filter);
+
+    /**
+     * The employees {@link #findAll} would return for {@code filter}, read as tuples holding
+     * only the given fields (see {@code EmployeeFieldsRepository}).
+     */
+    List<Tuple> findAllFields(Set<EmployeeField> fields, Specification<Employee> filter);
 
     Employee update(Long id, Employee updatedEmployee);
 
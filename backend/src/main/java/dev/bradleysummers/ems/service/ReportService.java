@@ -1,47 +1,86 @@
 package dev.bradleysummers.ems.service;
 
+import dev.bradleysummers.ems.cache.SingleFlight;
+import dev.bradleysummers.ems.datasource.PrimaryPinning;
+import dev.bradleysummers.ems.dto.FlatOrgChart;
 import dev.bradleysummers.ems.dto.HierarchyNodeDto;
 import dev.bradleysummers.ems.entity.Employee;
-import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import dev.bradleysummers.ems.repository.EmployeeHistoryRepository;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import dev.bradleysummers.ems.repository.EmployeeSpecifications;
+import dev.bradleysummers.ems.repository.OrgChartRow;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Org chart reports. Identical chart requests that arrive together (a shared link opened in a
+ * meeting) are coalesced: once the caller's visibility is known, requests with the same
+ * parameters and the same visibility share one computation instead of each loading the org.
+ * <p>
+ * A request only joins a computation that started after the last org change committed here,
+ * so a caller who has just made a change never gets a chart read before it.
+ */
 @Service
-@RequiredArgsConstructor
 public class ReportService {
 
+    /**
+     * What a chart request depends on; {@code restrictedTo} is null for callers who see
+     * everyone, so admins and guests all share the same charts. Historical charts follow the
+     * caller's current role, as for the live chart. {@code pinned} keeps callers that just
+     * wrote, and so read from the primary, from sharing a chart read from the replica, and
+     * {@code changes} keeps every caller from sharing one that started before a commit.
+     */
+    private record OrgChartKey(Long departmentId, LocalDateTime asOf, Long restrictedTo, boolean pinned,
+                               long changes) {
+    }
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeHistoryRepository employeeHistoryRepository;
+    private final Optional<PrimaryPinning> primaryPinning;
+    private final TransactionTemplate readOnly;
+    private final SingleFlight<OrgChartKey, List<HierarchyNodeDto>> orgCharts;
+    private final SingleFlight<OrgChartKey, FlatOrgChart> flatOrgCharts;
+    private final AtomicLong committedChanges = new AtomicLong();
 
-    public List<HierarchyNodeDto> generateHierarchyReport(Long departmentId) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+    public ReportService(EmployeeRepository employeeRepository,
+                         EmployeeHistoryRepository employeeHistoryRepository,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry,
+                         Optional<PrimaryPinning> primaryPinning) {
+        this.employeeRepository = employeeRepository;
+        this.employeeHistoryRepository = employeeHistoryRepository;
+        this.primaryPinning = primaryPinning;
 
-        List<Employee> allEmployees;
+        // Only the request that runs the computation opens a transaction; the ones waiting
+        // on it do not hold a connection
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
 
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.GUEST) {
-            allEmployees = employeeRepository.findAll();
-        } else {
-            allEmployees = List.of(currentUser);
-        }
+        this.orgCharts = new SingleFlight<>("orgchart", meterRegistry);
+        this.flatOrgCharts = new SingleFlight<>("orgchart.flat", meterRegistry);
+    }
+
+    private List<HierarchyNodeDto> buildHierarchy(Long departmentId, Long restrictedTo) {
+        // Visibility and the department filter are both part of the query
+        List<Employee> allEmployees = employeeRepository.findAll(
+                EmployeeSpecifications.visibleTo(restrictedTo).and(EmployeeSpecifications.inDepartment(departmentId)),
+                Sort.by("id"));
 
-        
-        // Filter by department if specified
-        if (departmentId != null) {
-            allEmployees = allEmployees.stream()
-                    .filter(e -> e.getDepartment() != null && e.getDepartment().getId().equals(departmentId))
-                    .collect(Collectors.toList());
-        }
-        
         // Create a map of all employees by ID for easy lookup
         Map<Long, HierarchyNodeDto> nodeMap = new HashMap<>();
         
@@ -87,4 +126,84 @@ public class ReportService {
         
         return rootNodes;
     }
+
+    private FlatOrgChart buildFlatHierarchy(Long departmentId, Long restrictedTo) {
+        List<OrgChartRow> rows = employeeRepository.findOrgChartRows(
+                EmployeeSpecifications.visibleTo(restrictedTo).and(EmployeeSpecifications.inDepartment(departmentId)));
+        return FlatOrgChart.of(rows, departmentId == null);
+    }
+
+    // Runs in the writing thread before it responds, so the writer's next request sees it
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(OrgChangeEvent event) {
+        committedChanges.incrementAndGet();
+    }
+
+    /**
+     * The org chart, or as it stood at {@code asOf}, rebuilt from {@code employee_history}
+     * with one indexed range lookup. The live chart is used when {@code asOf} is null.
+     */
+    public List<HierarchyNodeDto> generateHierarchyReport(Long departmentId, LocalDateTime asOf) {
+        Long restrictedTo = EmployeeSpecifications.restrictedTo(AuthenticatedEmployee.current());
+        return orgCharts.execute(chartKey(departmentId, asOf, restrictedTo),
+                () -> readOnly.execute(status -> asOf == null
+                        ? buildHierarchy(departmentId, restrictedTo)
+                        : buildHistoricalHierarchy(departmentId, asOf, restrictedTo)));
+    }
+
+    private List<HierarchyNodeDto> buildHistoricalHierarchy(Long departmentId, LocalDateTime asOf, Long restrictedTo) {
+        List<OrgChartRow> rows = employeeHistoryRepository.findOrgChartRowsAsOf(asOf, departmentId, restrictedTo);
+
+        Map<Long, HierarchyNodeDto> nodeMap = new HashMap<>();
+        for (OrgChartRow row : rows) {
+            nodeMap.put(row.id(), HierarchyNodeDto.builder()
+                    .id(row.id())
+                    .name(row.firstName() + " " + row.lastName())
+                    .role(row.role().toString())
+                    .department(row.departmentName())
+                    .departmentId(row.departmentId())
+                    .managerId(row.managerId())
+                    .jobTitle(row.jobTitle())
+                    .createdAt(row.createdAt())
+                    .updatedAt(row.updatedAt())
+                    .subordinates(new ArrayList<>())
+                    .build());
+        }
+
+        // Same root rules as the live chart
+        List<HierarchyNodeDto> rootNodes = new ArrayList<>();
+        for (OrgChartRow row : rows) {
+            HierarchyNodeDto node = nodeMap.get(row.id());
+            if (row.managerId() == null) {
+                rootNodes.add(node);
+            } else {
+                HierarchyNodeDto managerNode = nodeMap.get(row.managerId());
+                if (managerNode != null) {
+                    managerNode.getSubordinates().add(node);
+                } else if (departmentId == null) {
+                    rootNodes.add(node);
+                }
+            }
+        }
+        return rootNodes;
+    }
+
+    /**
+     * The same chart as {@link #generateHierarchyReport(Long, LocalDateTime)} in the columnar
+     * {@link FlatOrgChart} encoding, read through a projection instead of entities.
+     */
+    public FlatOrgChart generateFlatHierarchyReport(Long departmentId, LocalDateTime asOf) {
+        Long restrictedTo = EmployeeSpecifications.restrictedTo(AuthenticatedEmployee.current());
+        return flatOrgCharts.execute(chartKey(departmentId, asOf, restrictedTo),
+                () -> readOnly.execute(status -> asOf == null
+                        ? buildFlatHierarchy(departmentId, restrictedTo)
+                        : FlatOrgChart.of(employeeHistoryRepository.findOrgChartRowsAsOf(
+                                asOf, departmentId, restrictedTo), departmentId == null)));
+    }
+
+    // Pinning only exists when a replica is configured
+    private OrgChartKey chartKey(Long departmentId, LocalDateTime asOf, Long restrictedTo) {
+        boolean pinned = primaryPinning.map(PrimaryPinning::isPinned).orElse(false);
+        return new OrgChartKey(departmentId, asOf, restrictedTo, pinned, committedChanges.get());
+    }
 }
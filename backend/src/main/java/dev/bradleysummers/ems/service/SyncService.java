@@ -0,0 +1,99 @@
+package dev.bradleysummers.ems.service;
+
+import dev.bradleysummers.ems.dto.DepartmentDto;
+import dev.bradleysummers.ems.dto.EmployeeResponseDto;
+import dev.bradleysummers.ems.dto.sync.ChangeFeedDto;
+import dev.bradleysummers.ems.dto.sync.TombstoneDto;
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.entity.Tombstone;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.mapper.DepartmentMapper;
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.DepartmentRepository;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.TombstoneRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Incremental "changes since watermark" feed for downstream systems that mirror the directory.
+ */
+@Service
+@RequiredArgsConstructor
+public class SyncService {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final EmployeeRepository employeeRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final DepartmentRepository departmentRepository;
+
+    @Transactional(readOnly = true)
+    public ChangeFeedDto changesSince(String watermark, int limit) {
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
+
+        // Only roles that can see every employee may mirror the directory
+        if (currentUser.role() != Role.ADMIN && currentUser.role() != Role.GUEST) {
+            throw new RuntimeException("Only administrators can read the change feed");
+        }
+
+        SyncWatermark from = SyncWatermark.decode(watermark);
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Rows from transactions still running are held back until they finish, however long
+        // that takes. The horizon is read before the rows: under read committed each query sees
+        // a newer snapshot, in which everything below the horizon has already committed.
+        long horizon = employeeRepository.findChangeHorizon();
+
+        // Fetch one extra row per stream to know whether another page is waiting
+        List<Employee> changed = employeeRepository.findChangedSince(
+                from.employeeXid(), from.employeeId(), horizon, PageRequest.of(0, pageSize + 1));
+        List<Tombstone> deleted = tombstoneRepository.findChangedSince(
+                from.tombstoneXid(), from.tombstoneId(), horizon, PageRequest.of(0, pageSize + 1));
+        List<Department> departments = departmentRepository.findChangedSince(
+                from.departmentXid(), from.departmentId(), horizon, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = changed.size() > pageSize || deleted.size() > pageSize || departments.size() > pageSize;
+        if (changed.size() > pageSize) {
+            changed = changed.subList(0, pageSize);
+        }
+        if (deleted.size() > pageSize) {
+            deleted = deleted.subList(0, pageSize);
+        }
+        if (departments.size() > pageSize) {
+            departments = departments.subList(0, pageSize);
+        }
+
+        SyncWatermark next = from;
+        if (!changed.isEmpty()) {
+            Employee last = changed.get(changed.size() - 1);
+            next = next.withEmployee(last.getChangeXid(), last.getId());
+        }
+        if (!deleted.isEmpty()) {
+            Tombstone last = deleted.get(deleted.size() - 1);
+            next = next.withTombstone(last.getChangeXid(), last.getId());
+        }
+        if (!departments.isEmpty()) {
+            Department last = departments.get(departments.size() - 1);
+            next = next.withDepartment(last.getChangeXid(), last.getId());
+        }
+
+        List<EmployeeResponseDto> changedDtos = changed.stream()
+                .map(EmployeeMapper::toDto)
+                .toList();
+        List<TombstoneDto> deletedDtos = deleted.stream()
+                .map(t -> new TombstoneDto(t.getEntityType(), t.getEntityId(), t.getDeletedAt().toString()))
+                .toList();
+        List<DepartmentDto> departmentDtos = departments.stream()
+                .map(DepartmentMapper::toRefDto)
+                .toList();
+
+        return new ChangeFeedDto(changedDtos, departmentDtos, deletedDtos, next.encode(), hasMore);
+    }
+}
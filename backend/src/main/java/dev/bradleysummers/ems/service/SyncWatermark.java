@@ -0,0 +1,52 @@
+package dev.bradleysummers.ems.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Resumable position in the change feed: the {@code (changeXid, id)} of the last employee,
+ * tombstone and department returned. Clients treat the encoded form as opaque.
+ */
+public record SyncWatermark(long employeeXid, long employeeId, long tombstoneXid, long tombstoneId,
+                            long departmentXid, long departmentId) {
+
+    public static final SyncWatermark START = new SyncWatermark(0, 0, 0, 0, 0, 0);
+
+    public static SyncWatermark decode(String value) {
+        if (value == null || value.isBlank()) {
+            return START;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            String[] parts = decoded.split("\\|");
+            // Watermarks issued before departments had a stream resume it from the start
+            if (parts.length != 4 && parts.length != 6) {
+                throw new IllegalArgumentException("Expected 6 parts, got " + parts.length);
+            }
+            return new SyncWatermark(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                    Long.parseLong(parts[2]), Long.parseLong(parts[3]),
+                    parts.length == 6 ? Long.parseLong(parts[4]) : 0,
+                    parts.length == 6 ? Long.parseLong(parts[5]) : 0);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync watermark: " + value, e);
+        }
+    }
+
+    public String encode() {
+        String raw = employeeXid + "|" + employeeId + "|" + tombstoneXid + "|" + tombstoneId
+                + "|" + departmentXid + "|" + departmentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public SyncWatermark withEmployee(long xid, long id) {
+        return new SyncWatermark(xid, id, tombstoneXid, tombstoneId, departmentXid, departmentId);
+    }
+
+    public SyncWatermark withTombstone(long xid, long id) {
+        return new SyncWatermark(employeeXid, employeeId, xid, id, departmentXid, departmentId);
+    }
+
+    public SyncWatermark withDepartment(long xid, long id) {
+        return new SyncWatermark(employeeXid, employeeId, tombstoneXid, tombstoneId, xid, id);
+    }
+}
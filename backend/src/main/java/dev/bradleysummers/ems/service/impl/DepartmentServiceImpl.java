@@ -1,86 +1,160 @@
 package dev.bradleysummers.ems.service.impl;
 
+import dev.bradleysummers.ems.config.CacheConfig;
 import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.DepartmentStats;
 import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.entity.Tombstone;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
 import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
 import dev.bradleysummers.ems.repository.DepartmentRepository;
+import dev.bradleysummers.ems.repository.DepartmentStatsRepository;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.TombstoneRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
 import dev.bradleysummers.ems.service.DepartmentService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DepartmentServiceImpl implements DepartmentService {
 
     private final DepartmentRepository departmentRepository;
+    private final DepartmentStatsRepository departmentStatsRepository;
     private final EmployeeRepository employeeRepository;
+    private final TombstoneRepository tombstoneRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
+    // Cache loads deliberately read the primary: loading from a lagging replica right after
+    // an eviction would put the pre-change department back into the cache. They also load
+    // through the cache (sync), so a load that raced an eviction is dropped rather than kept
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENTS, key = "#id", sync = true)
     public Department findById(Long id) {
         return departmentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
     }
 
     @Override
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.DEPARTMENT_LIST, key = "'all'", sync = true)
     public List<Department> findAll() {
         return departmentRepository.findAll();
     }
 
+    // Every role may see every department, so there is nothing to filter
+    @Override
+    @Transactional(readOnly = true)
+    public List<Department> findAllById(Collection<Long> ids) {
+        List<Department> departments = new ArrayList<>(departmentRepository.findAllById(ids));
+        departments.sort(Comparator.comparing(Department::getId));
+        return departments;
+    }
+
+    // Counts change with every employee write, so unlike the departments they are never cached
     @Override
+    @Transactional(readOnly = true)
+    public DepartmentStats findStats(Long id) {
+        return departmentStatsRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, DepartmentStats> findAllStats() {
+        return departmentStatsRepository.findAll().stream()
+                .collect(Collectors.toMap(DepartmentStats::getDepartmentId, Function.identity()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, DepartmentStats> findStats(Collection<Long> ids) {
+        return departmentStatsRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(DepartmentStats::getDepartmentId, Function.identity()));
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_LIST, allEntries = true)
     public Department create(Department department) {
         // Check if user is admin - matching the pattern used in EmployeeServiceImpl
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
 
         // Only admins can create departments
-        if (currentUser.getRole() != Role.ADMIN) {
+        if (currentUser.role() != Role.ADMIN) {
             throw new RuntimeException("Only administrators can create departments");
         }
 
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(OrgChangeEvent.department(ChangeAction.CREATED, saved.getId(), saved.getVersion()));
+        return saved;
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_LIST, allEntries = true)
+    })
     public Department update(Long id, Department updated) {
         // Check if user is admin
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
 
         // Only admins can update departments
-        if (currentUser.getRole() != Role.ADMIN) {
+        if (currentUser.role() != Role.ADMIN) {
             throw new RuntimeException("Only administrators can update departments");
         }
 
         return departmentRepository.findById(id)
                 .map(existing -> {
+                    // Reject the write if the caller edited an older version
+                    if (updated.getVersion() != null && !updated.getVersion().equals(existing.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Department.class, id);
+                    }
+
                     existing.setName(updated.getName());
                     existing.setDescription(updated.getDescription());
-                    return departmentRepository.save(existing);
+
+                    // Flush so the event carries the incremented version
+                    Department saved = departmentRepository.saveAndFlush(existing);
+                    eventPublisher.publishEvent(OrgChangeEvent.department(ChangeAction.UPDATED, saved.getId(), saved.getVersion()));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Department not found with id: " + id));
     }
 
     @Override
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.DEPARTMENT_LIST, allEntries = true)
+    })
     public void delete(Long id) {
         // Check if department exists
         findById(id);
 
         // Check if user is admin
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
 
         // Only admins can delete departments
-        if (currentUser.getRole() != Role.ADMIN) {
+        if (currentUser.role() != Role.ADMIN) {
             throw new RuntimeException("Only administrators can delete departments");
         }
 
@@ -89,9 +163,17 @@ public class DepartmentServiceImpl implements DepartmentService {
         for (Employee employee : employeesInDepartment) {
             employee.setDepartment(null);
             employeeRepository.save(employee);
+            eventPublisher.publishEvent(OrgChangeEvent.employee(ChangeAction.UPDATED, employee.getId(), null));
         }
 
         // Now delete the department
         departmentRepository.deleteById(id);
+        eventPublisher.publishEvent(OrgChangeEvent.department(ChangeAction.DELETED, id, null));
+
+        // Leave a tombstone so the change feed can report the deletion
+        tombstoneRepository.save(Tombstone.builder()
+                .entityType(EntityType.DEPARTMENT)
+                .entityId(id)
+                .build());
     }
 }
\ No newline at end of file
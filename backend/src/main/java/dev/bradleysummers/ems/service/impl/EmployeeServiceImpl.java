@@ -2,16 +2,31 @@ package dev.bradleysummers.ems.service.impl;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import dev.bradleysummers.ems.config.CacheConfig;
 import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.entity.Tombstone;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
 import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import dev.bradleysummers.ems.repository.EmployeeField;
 import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.EmployeeSpecifications;
+import dev.bradleysummers.ems.repository.TombstoneRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
 import dev.bradleysummers.ems.service.EmployeeService;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -19,56 +34,54 @@ import lombok.RequiredArgsConstructor;
 public class EmployeeServiceImpl implements EmployeeService {
 
     private final EmployeeRepository employeeRepository;
+    private final TombstoneRepository tombstoneRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public Employee create(Employee employee) {
         // Encrypt password before saving
         employee.setPassword(passwordEncoder.encode(employee.getPassword()));
-        return employeeRepository.save(employee);
+        Employee saved = employeeRepository.save(employee);
+        eventPublisher.publishEvent(OrgChangeEvent.employee(ChangeAction.CREATED, saved.getId(), saved.getVersion()));
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Employee> findById(Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
-
-        // Admins and Guests can view any employee
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.GUEST) {
-            return employeeRepository.findById(id);
-        }
-
-        // Employees can view themselves
-        if (currentUser.getId().equals(id)) {
-            return employeeRepository.findById(id);
-        }
-
-        // Access denied
-        return Optional.empty();
+        // Employees not visible to the caller are not found
+        return employeeRepository.findOne(EmployeeSpecifications.visibleTo(AuthenticatedEmployee.current())
+                .and(EmployeeSpecifications.hasId(id)));
     }
 
-
     @Override
-    public List<Employee> findAll() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
-
-        if (currentUser.getRole() == Role.ADMIN || currentUser.getRole() == Role.GUEST) {
-            // Admins and Guests can view all employees
-            return employeeRepository.findAll();
-        }
+    @Transactional(readOnly = true)
+    public List<Employee> findAll(Specification<Employee> filter) {
+        return employeeRepository.findAll(
+                EmployeeSpecifications.visibleTo(AuthenticatedEmployee.current()).and(filter), Sort.by("id"));
+    }
 
-        // Employees can only see themselves
-        return List.of(currentUser);
+    @Override
+    @Transactional(readOnly = true)
+    public List<Tuple> findAllFields(Set<EmployeeField> fields, Specification<Employee> filter) {
+        return employeeRepository.findFields(fields,
+                EmployeeSpecifications.visibleTo(AuthenticatedEmployee.current()).and(filter));
     }
 
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TOKEN_VERSIONS, key = "#id")
     public Employee update(Long id, Employee updatedEmployee) {
         return employeeRepository.findById(id)
                 .map(existing -> {
+                    // Reject the write if the caller edited an older version
+                    if (updatedEmployee.getVersion() != null && !updatedEmployee.getVersion().equals(existing.getVersion())) {
+                        throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+                    }
+
                     validateManager(existing, updatedEmployee.getManager());
 
                     existing.setActive(updatedEmployee.isActive());
@@ -86,24 +99,27 @@ public class EmployeeServiceImpl implements EmployeeService {
                     existing.setDepartment(updatedEmployee.getDepartment());
                     existing.setManager(updatedEmployee.getManager());
 
-                    return employeeRepository.save(existing);
+                    // Flush so the event carries the incremented version
+                    Employee saved = employeeRepository.saveAndFlush(existing);
+                    eventPublisher.publishEvent(OrgChangeEvent.employee(ChangeAction.UPDATED, saved.getId(), saved.getVersion()));
+                    return saved;
                 })
                 .orElseThrow(() -> new RuntimeException("Employee not found"));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.TOKEN_VERSIONS, key = "#id")
     public void delete(Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        Employee currentUser = employeeRepository.findByEmail(auth.getName())
-                .orElseThrow(() -> new RuntimeException("Current user not found"));
+        AuthenticatedEmployee currentUser = AuthenticatedEmployee.current();
         
         // Only admins can delete employees
-        if (currentUser.getRole() != Role.ADMIN) {
+        if (currentUser.role() != Role.ADMIN) {
             throw new RuntimeException("Only administrators can delete employees");
         }
         
         // Admin cannot delete themselves
-        if (currentUser.getId().equals(id)) {
+        if (currentUser.id().equals(id)) {
             throw new RuntimeException("Administrators cannot delete their own account");
         }
         
@@ -116,9 +132,17 @@ public class EmployeeServiceImpl implements EmployeeService {
         for (Employee managed : managedEmployees) {
             managed.setManager(null);
             employeeRepository.save(managed);
+            eventPublisher.publishEvent(OrgChangeEvent.employee(ChangeAction.UPDATED, managed.getId(), null));
         }
         
         employeeRepository.deleteById(id);
+        eventPublisher.publishEvent(OrgChangeEvent.employee(ChangeAction.DELETED, id, null));
+
+        // Leave a tombstone so the change feed can report the deletion
+        tombstoneRepository.save(Tombstone.builder()
+                .entityType(EntityType.EMPLOYEE)
+                .entityId(id)
+                .build());
     }
 
     private void validateManager(Employee employee, Employee manager) {
@@ -129,13 +153,10 @@ public class EmployeeServiceImpl implements EmployeeService {
             throw new IllegalArgumentException("An employee cannot be their own manager.");
         }
 
-        // Prevent cycles
-        Employee current = manager;
-        while (current != null) {
-            if (current.getId() != null && current.getId().equals(employee.getId())) {
-                throw new IllegalArgumentException("Assigning this manager would create a management cycle.");
-            }
-            current = current.getManager();
+        // Prevent cycles; the manager was loaded in another session, so its own manager
+        // cannot be walked here
+        if (employee.getId() != null && employeeRepository.isInManagementChain(employee.getId(), manager.getId())) {
+            throw new IllegalArgumentException("Assigning this manager would create a management cycle.");
         }
     }
 }
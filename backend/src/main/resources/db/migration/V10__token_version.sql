@@ -0,0 +1,29 @@
+-- Access tokens carry the employee's token_version (the "tv" claim) and are only accepted
+-- while it matches. Bumping it revokes every token issued before the change.
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS token_version BIGINT NOT NULL DEFAULT 0;
+
+-- Bumped by a trigger rather than the application, so role changes, deactivation and
+-- password resets revoke tokens no matter which path made them
+CREATE OR REPLACE FUNCTION employees_token_version()
+RETURNS trigger AS $$
+BEGIN
+    IF (OLD.email, OLD.password, OLD.role, OLD.active)
+            IS DISTINCT FROM
+            (NEW.email, NEW.password, NEW.role, NEW.active) THEN
+        NEW.token_version := OLD.token_version + 1;
+    ELSE
+        NEW.token_version := OLD.token_version;
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_employees_token_version ON employees;
+CREATE TRIGGER trg_employees_token_version
+    BEFORE UPDATE ON employees
+    FOR EACH ROW EXECUTE FUNCTION employees_token_version();
+
+-- Login reads the token version along with the credentials, so keep that lookup index-only
+DROP INDEX IF EXISTS uk_employees_email_lower;
+CREATE UNIQUE INDEX uk_employees_email_lower
+    ON employees (lower(email)) INCLUDE (email, id, password, role, active, token_version);
@@ -0,0 +1,26 @@
+-- Refresh tokens are opaque random strings; only their SHA-256 is stored. Each use rotates
+-- the token within its family, and presenting an already-used token revokes the family.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    employee_id BIGINT       NOT NULL REFERENCES employees (id) ON DELETE CASCADE,
+    family_id   UUID         NOT NULL,
+    token_hash  CHAR(64)     NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    expires_at  TIMESTAMP(6) NOT NULL,
+    used_at     TIMESTAMP(6),
+    revoked_at  TIMESTAMP(6)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_refresh_tokens_token_hash ON refresh_tokens (token_hash);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_employee_id ON refresh_tokens (employee_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+-- Access tokens revoked before they expire (logout), by jti. Replicas hold these in memory
+-- and reload the unexpired ones whenever their notification listener (re)connects.
+CREATE TABLE IF NOT EXISTS revoked_access_tokens (
+    jti        VARCHAR(36)  PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_revoked_access_tokens_expires_at ON revoked_access_tokens (expires_at);
@@ -0,0 +1,32 @@
+-- The change feed used to page by updated_at and tombstone id, holding back only the last few
+-- seconds. Both are assigned before commit, so a transaction that ran longer than that could
+-- commit rows behind a cursor a client had already moved past, and they were never served.
+--
+-- Each row now records the id of the transaction that last wrote it. The feed pages by
+-- (change_xid, id) and only serves rows written by transactions older than every transaction
+-- still running (pg_snapshot_xmin), so nothing can become visible behind a served cursor.
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tombstones ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+
+CREATE OR REPLACE FUNCTION set_change_xid()
+RETURNS trigger AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::text::bigint;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_employees_change_xid ON employees;
+CREATE TRIGGER trg_employees_change_xid
+    BEFORE INSERT OR UPDATE ON employees
+    FOR EACH ROW EXECUTE FUNCTION set_change_xid();
+
+DROP TRIGGER IF EXISTS trg_tombstones_change_xid ON tombstones;
+CREATE TRIGGER trg_tombstones_change_xid
+    BEFORE INSERT ON tombstones
+    FOR EACH ROW EXECUTE FUNCTION set_change_xid();
+
+-- Cursor indexes for EmployeeRepository#findChangedSince and TombstoneRepository#findChangedSince
+DROP INDEX IF EXISTS idx_employees_updated_at_id;
+CREATE INDEX IF NOT EXISTS idx_employees_change_xid_id ON employees (change_xid, id);
+CREATE INDEX IF NOT EXISTS idx_tombstones_change_xid_id ON tombstones (change_xid, id);
@@ -0,0 +1,82 @@
+-- V7 started each version at localtimestamp, the start of the writing transaction. A
+-- transaction that started before another but changed the employee after it committed
+-- closed that version to an empty range and opened its own at the earlier time, so the two
+-- transactions' versions overlapped and an as-of chart showed the employee twice.
+--
+-- Versions now start when the change is made (clock_timestamp), and never before the start
+-- of the version they replace. The row lock on the employee orders the changes, so each
+-- version begins where the previous one ends.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Which transaction opened the version, so a second change in the same transaction can
+-- replace it instead of leaving an intermediate state in the history
+ALTER TABLE employee_history ADD COLUMN IF NOT EXISTS change_xid BIGINT;
+
+CREATE OR REPLACE FUNCTION employees_history()
+RETURNS trigger AS $$
+DECLARE
+    current_xid BIGINT := pg_current_xact_id()::text::bigint;
+    ts TIMESTAMP := clock_timestamp()::timestamp;
+    replaced_from TIMESTAMP;
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (OLD.first_name, OLD.last_name, OLD.role, OLD.active, OLD.job_title, OLD.department_id, OLD.manager_id)
+            IS NOT DISTINCT FROM
+            (NEW.first_name, NEW.last_name, NEW.role, NEW.active, NEW.job_title, NEW.department_id, NEW.manager_id) THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        -- A second change in the same transaction replaces the version the first one opened;
+        -- the version before that already ends where the replaced one started
+        DELETE FROM employee_history
+        WHERE employee_id = OLD.id AND upper_inf(valid_during) AND change_xid = current_xid
+        RETURNING lower(valid_during) INTO replaced_from;
+
+        IF replaced_from IS NOT NULL THEN
+            ts := replaced_from;
+        ELSE
+            -- Clocks can step back; a version never starts before the one it replaces
+            SELECT greatest(ts, max(lower(valid_during))) INTO ts
+            FROM employee_history
+            WHERE employee_id = OLD.id AND upper_inf(valid_during);
+
+            UPDATE employee_history
+            SET valid_during = tsrange(lower(valid_during), ts)
+            WHERE employee_id = OLD.id AND upper_inf(valid_during);
+        END IF;
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO employee_history (employee_id, first_name, last_name, role, active, job_title,
+                                      department_id, department_name, manager_id, created_at,
+                                      valid_during, change_xid)
+        SELECT NEW.id, NEW.first_name, NEW.last_name, NEW.role, NEW.active, NEW.job_title,
+               NEW.department_id, (SELECT d.name FROM departments d WHERE d.id = NEW.department_id),
+               NEW.manager_id, NEW.created_at, tsrange(ts, NULL), current_xid;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Repair versions written by the old trigger. Versions of one employee were written in id
+-- order under the row lock, so each one starts no earlier than the end of those before it.
+WITH ordered AS (
+    SELECT id,
+           max(upper(valid_during)) OVER (PARTITION BY employee_id ORDER BY id
+                                          ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING) AS previous_end
+    FROM employee_history
+)
+UPDATE employee_history h
+SET valid_during = CASE
+        WHEN upper_inf(h.valid_during) THEN tsrange(o.previous_end, NULL)
+        ELSE tsrange(least(o.previous_end, upper(h.valid_during)), upper(h.valid_during))
+    END
+FROM ordered o
+WHERE o.id = h.id AND o.previous_end > lower(h.valid_during);
+
+-- From here on an overlap is rejected rather than stored
+ALTER TABLE employee_history DROP CONSTRAINT IF EXISTS ex_employee_history_valid_during;
+ALTER TABLE employee_history
+    ADD CONSTRAINT ex_employee_history_valid_during
+    EXCLUDE USING gist (employee_id WITH =, valid_during WITH &&);
@@ -0,0 +1,13 @@
+-- Bumping employees.token_version revoked access tokens but not refresh tokens, so a refresh
+-- token taken before a password reset or role change kept minting new access tokens. Each
+-- refresh token now records the token version it was issued under, and rotation revokes
+-- the family once the employee's version has moved on.
+ALTER TABLE refresh_tokens ADD COLUMN IF NOT EXISTS token_version BIGINT;
+
+-- Tokens issued before this migration are taken to belong to the current version
+UPDATE refresh_tokens rt
+SET token_version = e.token_version
+FROM employees e
+WHERE e.id = rt.employee_id AND rt.token_version IS NULL;
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_version SET NOT NULL;
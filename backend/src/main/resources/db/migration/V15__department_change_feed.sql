@@ -0,0 +1,12 @@
+-- The change feed served employees and tombstones only, so a department that was created or
+-- renamed never reached a mirror, and employees kept showing the old name there. Departments
+-- get the same transaction id cursor as employees (V12) and their own stream in the feed.
+ALTER TABLE departments ADD COLUMN IF NOT EXISTS change_xid BIGINT NOT NULL DEFAULT 0;
+
+DROP TRIGGER IF EXISTS trg_departments_change_xid ON departments;
+CREATE TRIGGER trg_departments_change_xid
+    BEFORE INSERT OR UPDATE ON departments
+    FOR EACH ROW EXECUTE FUNCTION set_change_xid();
+
+-- Cursor index for DepartmentRepository#findChangedSince
+CREATE INDEX IF NOT EXISTS idx_departments_change_xid_id ON departments (change_xid, id);
@@ -0,0 +1,36 @@
+-- Initial schema matching the Department and Employee entities.
+-- Written with IF NOT EXISTS so it also applies cleanly to databases that were
+-- previously created by Hibernate's ddl-auto=update.
+
+CREATE TABLE IF NOT EXISTS departments (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name        VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    CONSTRAINT uk_departments_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS employees (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    active        BOOLEAN      NOT NULL DEFAULT TRUE,
+    email         VARCHAR(255) NOT NULL,
+    password      VARCHAR(255) NOT NULL,
+    role          VARCHAR(255) NOT NULL,
+    first_name    VARCHAR(255) NOT NULL,
+    last_name     VARCHAR(255) NOT NULL,
+    job_title     VARCHAR(255),
+    created_at    TIMESTAMP(6),
+    updated_at    TIMESTAMP(6),
+    department_id BIGINT,
+    manager_id    BIGINT,
+    CONSTRAINT uk_employees_email UNIQUE (email),
+    CONSTRAINT ck_employees_role CHECK (role IN ('ADMIN', 'EMPLOYEE', 'GUEST')),
+    CONSTRAINT fk_employees_department FOREIGN KEY (department_id) REFERENCES departments (id),
+    CONSTRAINT fk_employees_manager FOREIGN KEY (manager_id) REFERENCES employees (id)
+);
+
+-- Indexes backing EmployeeRepository.findByManagerId / findByDepartmentId and the
+-- role / active filters used by the employee list and reports.
+CREATE INDEX IF NOT EXISTS idx_employees_manager_id ON employees (manager_id);
+CREATE INDEX IF NOT EXISTS idx_employees_department_id ON employees (department_id);
+CREATE INDEX IF NOT EXISTS idx_employees_role ON employees (role);
+CREATE INDEX IF NOT EXISTS idx_employees_active ON employees (active);
@@ -0,0 +1,29 @@
+-- Emails are normalized to lower case on write (see Employee#normalizeEmail).
+-- Bring existing rows in line before adding the case-insensitive unique index.
+-- Rows whose emails differ only by case or surrounding spaces cannot both be kept, and
+-- which one to keep is a business decision. Stop with the list of them instead of failing
+-- on uk_employees_email: merge or rename those accounts by hand, then start again.
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    SELECT string_agg(format('%s (ids %s)', normalized, ids), ', ')
+    INTO duplicates
+    FROM (SELECT lower(trim(email)) AS normalized, string_agg(id::text, ', ' ORDER BY id) AS ids
+          FROM employees
+          GROUP BY lower(trim(email))
+          HAVING count(*) > 1) d;
+
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'Employee emails differ only by case or whitespace: %. '
+            'Merge or rename these accounts before migrating.', duplicates;
+    END IF;
+END;
+$$;
+
+UPDATE employees SET email = lower(trim(email)) WHERE email <> lower(trim(email));
+
+-- Functional unique index used by login and principal lookups. The INCLUDE columns
+-- cover EmployeeRepository#findCredentialsByEmail so it can run as an index-only scan.
+CREATE UNIQUE INDEX IF NOT EXISTS uk_employees_email_lower
+    ON employees (lower(email)) INCLUDE (email, id, password, role, active);
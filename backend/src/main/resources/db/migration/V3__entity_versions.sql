@@ -0,0 +1,4 @@
+-- Optimistic locking columns for @Version on Employee and Department.
+-- Also used to derive ETags for conditional GET / If-Match requests.
+ALTER TABLE employees ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE departments ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
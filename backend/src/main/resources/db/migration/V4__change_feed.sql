@@ -0,0 +1,11 @@
+-- Cursor index for the employee change feed (EmployeeRepository#findChangedSince).
+CREATE INDEX IF NOT EXISTS idx_employees_updated_at_id ON employees (updated_at, id);
+
+-- Deleted employees and departments, reported by the change feed as tombstones.
+CREATE TABLE IF NOT EXISTS tombstones (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    deleted_at  TIMESTAMP(6) NOT NULL,
+    CONSTRAINT ck_tombstones_entity_type CHECK (entity_type IN ('EMPLOYEE', 'DEPARTMENT'))
+);
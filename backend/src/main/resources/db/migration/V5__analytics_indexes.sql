@@ -0,0 +1,11 @@
+-- Covering indexes for the org analytics queries (AnalyticsService), so headcounts and
+-- reporting-chain walks are answered from indexes without touching the table.
+-- Each replaces a single-column index that is a prefix of it.
+
+-- Headcount by department, role and active flag
+CREATE INDEX IF NOT EXISTS idx_employees_department_role_active ON employees (department_id, role, active);
+DROP INDEX IF EXISTS idx_employees_department_id;
+
+-- Span of control and the recursive manager -> report walk
+CREATE INDEX IF NOT EXISTS idx_employees_manager_id_id ON employees (manager_id, id);
+DROP INDEX IF EXISTS idx_employees_manager_id;
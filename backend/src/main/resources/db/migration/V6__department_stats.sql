@@ -0,0 +1,84 @@
+-- Per-department member counts, kept current by triggers in the same transaction as the
+-- employee write, so listing departments with their counts costs O(departments).
+CREATE TABLE IF NOT EXISTS department_stats (
+    department_id BIGINT PRIMARY KEY REFERENCES departments (id) ON DELETE CASCADE,
+    total         BIGINT NOT NULL DEFAULT 0,
+    active        BIGINT NOT NULL DEFAULT 0,
+    admins        BIGINT NOT NULL DEFAULT 0,
+    employees     BIGINT NOT NULL DEFAULT 0,
+    guests        BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE OR REPLACE FUNCTION department_stats_apply(dept BIGINT, emp_role VARCHAR, emp_active BOOLEAN, delta BIGINT)
+RETURNS void AS $$
+BEGIN
+    IF dept IS NULL THEN
+        RETURN;
+    END IF;
+    UPDATE department_stats
+    SET total     = total + delta,
+        active    = active + CASE WHEN emp_active THEN delta ELSE 0 END,
+        admins    = admins + CASE WHEN emp_role = 'ADMIN' THEN delta ELSE 0 END,
+        employees = employees + CASE WHEN emp_role = 'EMPLOYEE' THEN delta ELSE 0 END,
+        guests    = guests + CASE WHEN emp_role = 'GUEST' THEN delta ELSE 0 END
+    WHERE department_id = dept;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION employees_department_stats()
+RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM department_stats_apply(NEW.department_id, NEW.role, NEW.active, 1);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM department_stats_apply(OLD.department_id, OLD.role, OLD.active, -1);
+    ELSIF (OLD.department_id, OLD.role, OLD.active) IS DISTINCT FROM (NEW.department_id, NEW.role, NEW.active) THEN
+        -- Touch the two departments in id order so concurrent moves in opposite
+        -- directions cannot deadlock on the stats rows
+        IF coalesce(OLD.department_id, 0) <= coalesce(NEW.department_id, 0) THEN
+            PERFORM department_stats_apply(OLD.department_id, OLD.role, OLD.active, -1);
+            PERFORM department_stats_apply(NEW.department_id, NEW.role, NEW.active, 1);
+        ELSE
+            PERFORM department_stats_apply(NEW.department_id, NEW.role, NEW.active, 1);
+            PERFORM department_stats_apply(OLD.department_id, OLD.role, OLD.active, -1);
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION departments_create_stats()
+RETURNS trigger AS $$
+BEGIN
+    INSERT INTO department_stats (department_id) VALUES (NEW.id) ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_departments_create_stats ON departments;
+CREATE TRIGGER trg_departments_create_stats
+    AFTER INSERT ON departments
+    FOR EACH ROW EXECUTE FUNCTION departments_create_stats();
+
+DROP TRIGGER IF EXISTS trg_employees_department_stats ON employees;
+CREATE TRIGGER trg_employees_department_stats
+    AFTER INSERT OR DELETE OR UPDATE OF department_id, role, active ON employees
+    FOR EACH ROW EXECUTE FUNCTION employees_department_stats();
+
+-- Backfill from the current data
+INSERT INTO department_stats (department_id, total, active, admins, employees, guests)
+SELECT d.id,
+       count(e.id),
+       count(e.id) FILTER (WHERE e.active),
+       count(e.id) FILTER (WHERE e.role = 'ADMIN'),
+       count(e.id) FILTER (WHERE e.role = 'EMPLOYEE'),
+       count(e.id) FILTER (WHERE e.role = 'GUEST')
+FROM departments d
+LEFT JOIN employees e ON e.department_id = d.id
+GROUP BY d.id
+ON CONFLICT (department_id) DO UPDATE
+SET total = EXCLUDED.total,
+    active = EXCLUDED.active,
+    admins = EXCLUDED.admins,
+    employees = EXCLUDED.employees,
+    guests = EXCLUDED.guests;
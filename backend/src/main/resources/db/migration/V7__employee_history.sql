@@ -0,0 +1,73 @@
+-- Append-only history of the employee attributes shown on the org chart. Each row is one
+-- version of an employee, valid over valid_during = [from, to); the current version has
+-- an unbounded upper end. Rows are written by a trigger, so every path that changes an
+-- employee (including FK actions and bulk SQL) is recorded.
+CREATE TABLE IF NOT EXISTS employee_history (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    employee_id     BIGINT       NOT NULL,
+    first_name      VARCHAR(255) NOT NULL,
+    last_name       VARCHAR(255) NOT NULL,
+    role            VARCHAR(255) NOT NULL,
+    active          BOOLEAN      NOT NULL,
+    job_title       VARCHAR(255),
+    department_id   BIGINT,
+    -- Name at the time the version was written, so deleted departments still show up
+    department_name VARCHAR(255),
+    manager_id      BIGINT,
+    created_at      TIMESTAMP(6),
+    valid_during    TSRANGE      NOT NULL
+);
+
+-- "As of T" lookups: valid_during @> T
+CREATE INDEX IF NOT EXISTS idx_employee_history_valid_during ON employee_history USING gist (valid_during);
+-- The open version of each employee, which the trigger closes on every change
+CREATE INDEX IF NOT EXISTS idx_employee_history_current ON employee_history (employee_id) WHERE upper_inf(valid_during);
+
+CREATE OR REPLACE FUNCTION employees_history()
+RETURNS trigger AS $$
+DECLARE
+    ts TIMESTAMP := localtimestamp;
+BEGIN
+    IF TG_OP = 'UPDATE'
+        AND (OLD.first_name, OLD.last_name, OLD.role, OLD.active, OLD.job_title, OLD.department_id, OLD.manager_id)
+            IS NOT DISTINCT FROM
+            (NEW.first_name, NEW.last_name, NEW.role, NEW.active, NEW.job_title, NEW.department_id, NEW.manager_id) THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        -- A second change in the same transaction replaces the version the first one opened
+        DELETE FROM employee_history
+        WHERE employee_id = OLD.id AND upper_inf(valid_during) AND lower(valid_during) = ts;
+
+        UPDATE employee_history
+        SET valid_during = tsrange(lower(valid_during), greatest(lower(valid_during), ts))
+        WHERE employee_id = OLD.id AND upper_inf(valid_during);
+    END IF;
+
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO employee_history (employee_id, first_name, last_name, role, active, job_title,
+                                      department_id, department_name, manager_id, created_at, valid_during)
+        SELECT NEW.id, NEW.first_name, NEW.last_name, NEW.role, NEW.active, NEW.job_title,
+               NEW.department_id, (SELECT d.name FROM departments d WHERE d.id = NEW.department_id),
+               NEW.manager_id, NEW.created_at, tsrange(ts, NULL);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_employees_history ON employees;
+CREATE TRIGGER trg_employees_history
+    AFTER INSERT OR DELETE OR UPDATE ON employees
+    FOR EACH ROW EXECUTE FUNCTION employees_history();
+
+-- Seed one open version per existing employee. Earlier changes were never recorded, so
+-- the current attributes are assumed to have held since the employee was created.
+INSERT INTO employee_history (employee_id, first_name, last_name, role, active, job_title,
+                              department_id, department_name, manager_id, created_at, valid_during)
+SELECT e.id, e.first_name, e.last_name, e.role, e.active, e.job_title,
+       e.department_id, d.name, e.manager_id, e.created_at,
+       tsrange(least(coalesce(e.created_at, localtimestamp), localtimestamp), NULL)
+FROM employees e
+LEFT JOIN departments d ON d.id = e.department_id
+WHERE NOT EXISTS (SELECT 1 FROM employee_history h WHERE h.employee_id = e.id);
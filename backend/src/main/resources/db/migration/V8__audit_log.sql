@@ -0,0 +1,14 @@
+-- Who changed what, written in batches by AuditLogWriter after each write commits.
+CREATE TABLE IF NOT EXISTS audit_log (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    occurred_at    TIMESTAMP(6) NOT NULL,
+    actor          VARCHAR(255) NOT NULL,
+    action         VARCHAR(255) NOT NULL,
+    entity_type    VARCHAR(255) NOT NULL,
+    entity_id      BIGINT       NOT NULL,
+    entity_version BIGINT,
+    request        VARCHAR(512)
+);
+
+CREATE INDEX IF NOT EXISTS idx_audit_log_entity ON audit_log (entity_type, entity_id);
+CREATE INDEX IF NOT EXISTS idx_audit_log_occurred_at ON audit_log (occurred_at);
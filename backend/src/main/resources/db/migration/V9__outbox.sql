@@ -0,0 +1,12 @@
+-- Transactional outbox: one row per employee or department change, inserted in the same
+-- transaction as the change and deleted by OutboxRelay once a sink has accepted it.
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    entity_type    VARCHAR(255) NOT NULL,
+    action         VARCHAR(255) NOT NULL,
+    entity_id      BIGINT       NOT NULL,
+    entity_version BIGINT,
+    -- The entity as committed, or NULL for deletions
+    payload        JSONB,
+    created_at     TIMESTAMP(6) NOT NULL
+);
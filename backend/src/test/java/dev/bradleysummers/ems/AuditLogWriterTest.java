@@ -0,0 +1,95 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.audit.AuditEntry;
+import dev.bradleysummers.ems.audit.AuditLogWriter;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the batched audit log writer
+ */
+public class AuditLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+    private final List<AuditEntry> written = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private AuditLogWriter writer(int bufferSize, int batchSize) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<AuditEntry> entries = invocation.getArgument(1);
+                    batchSizes.add(entries.size());
+                    written.addAll(entries);
+                    return new int[0][];
+                });
+        return new AuditLogWriter(jdbcTemplate, new SimpleMeterRegistry(), bufferSize, batchSize);
+    }
+
+    @Test
+    void stop_ShouldWriteEveryBufferedEntry() {
+        AuditLogWriter writer = writer(10_000, 100);
+        writer.start();
+
+        // Record more entries than one batch holds
+        for (long id = 1; id <= 1_000; id++) {
+            writer.onChange(OrgChangeEvent.employee(ChangeAction.UPDATED, id, 1L));
+        }
+        writer.stop();
+
+        // Every entry is written, in batches no larger than configured
+        assertEquals(1_000, written.size());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 100));
+        assertEquals("system", written.get(0).actor());
+        assertEquals(EntityType.EMPLOYEE, written.get(0).entityType());
+    }
+
+    @Test
+    void onChange_WhenNotRunning_ShouldWriteInline() {
+        AuditLogWriter writer = writer(10, 10);
+
+        // Never started, so there is no worker to hand off to
+        writer.onChange(OrgChangeEvent.department(ChangeAction.DELETED, 7L, null));
+
+        assertEquals(List.of(1), batchSizes);
+        assertEquals(7L, written.get(0).entityId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void onChange_BufferFullAndDatabaseDown_ShouldNotThrow() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        AuditLogWriter writer = new AuditLogWriter(jdbcTemplate, new SimpleMeterRegistry(), 1, 1);
+        writer.start();
+
+        // The worker holds one entry while it retries and the buffer holds one more, so the
+        // rest fall back to inline writes, which fail as well
+        for (long id = 1; id <= 5; id++) {
+            long entityId = id;
+            assertDoesNotThrow(() -> writer.onChange(OrgChangeEvent.employee(ChangeAction.UPDATED, entityId, 1L)));
+        }
+        writer.stop();
+
+        // Inline writes were attempted, and shutdown logs what it could not write
+        verify(jdbcTemplate, atLeast(3)).batchUpdate(anyString(), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+}
@@ -0,0 +1,118 @@
+package dev.bradleysummers.ems;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Synthetic org used by the *Benchmark classes, plus a tiny CPU-time harness.
+ * Run the benchmarks with {@code mvn -Pbenchmark test}.
+ */
+final class BenchmarkData {
+
+    static final int EMPLOYEES = 10_000;
+    private static final int DEPARTMENTS = 25;
+    private static final int SPAN_OF_CONTROL = 8;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * A balanced reporting tree: employee n reports to employee (n - 1) / 8, with
+     * departments and job titles repeated the way they are in a real directory.
+     */
+    static List<Employee> org(int size) {
+        List<Department> departments = new ArrayList<>();
+        for (int d = 1; d <= DEPARTMENTS; d++) {
+            departments.add(Department.builder()
+                    .id((long) d)
+                    .name("Department " + d)
+                    .description("Description of department " + d)
+                    .version(0L)
+                    .build());
+        }
+
+        String[] titles = {"Engineer", "Senior Engineer", "Analyst", "Manager", "Director", "Designer", "Accountant"};
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Employee manager = i == 0 ? null : employees.get((i - 1) / SPAN_OF_CONTROL);
+            employees.add(Employee.builder()
+                    .id((long) i + 1)
+                    .active(i % 20 != 0)
+                    .email("employee" + i + "@initech.com")
+                    .password("$2a$10$abcdefghijklmnopqrstuuJf6ZbIuq2tVtxSxKbvtuDLoI3q1uL8K")
+                    .role(i == 0 ? Role.ADMIN : i % 50 == 0 ? Role.GUEST : Role.EMPLOYEE)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .jobTitle(titles[i % titles.length])
+                    .createdAt(created.plusMinutes(i))
+                    .updatedAt(created.plusMinutes(i).plusDays(30))
+                    .version(0L)
+                    .department(departments.get(i % DEPARTMENTS))
+                    .manager(manager)
+                    .build());
+        }
+        return employees;
+    }
+
+    /**
+     * An object mapper builder with the defaults Spring Boot applies, notably ISO-8601
+     * strings rather than arrays for dates.
+     */
+    static Jackson2ObjectMapperBuilder jackson() {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    interface Task {
+        Object run() throws Exception;
+    }
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Median CPU milliseconds per run of the task, after warming it up.
+     */
+    static double cpuMillis(Task task) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            task.run();
+        }
+        double[] samples = new double[15];
+        for (int i = 0; i < samples.length; i++) {
+            long start = THREADS.getCurrentThreadCpuTime();
+            task.run();
+            samples[i] = (THREADS.getCurrentThreadCpuTime() - start) / 1_000_000.0;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    /**
+     * Bytes allocated on the heap by one run of the task, after warming it up.
+     */
+    static long allocatedBytes(Task task) throws Exception {
+        for (int i = 0; i < 5; i++) {
+            task.run();
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        long start = threads.getCurrentThreadAllocatedBytes();
+        task.run();
+        return threads.getCurrentThreadAllocatedBytes() - start;
+    }
+
+    static void row(String label, long bytes, double millis) {
+        String size = bytes > 0 ? bytes + " bytes" : "";
+        System.out.printf("  %-38s %18s %10.2f ms%n", label, size, millis);
+    }
+}
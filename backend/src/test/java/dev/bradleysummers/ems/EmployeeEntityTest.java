@@ -72,4 +72,11 @@ public class EmployeeEntityTest {
                 
         assertNotEquals(employee1, employee4, "Employees with different IDs should not be equal");
     }
+
+    @Test
+    void normalizeEmail_ShouldTrimAndLowercase() {
+        // Emails are stored and looked up in their normalized form
+        assertEquals("john.doe@example.com", Employee.normalizeEmail("  John.Doe@Example.COM "));
+        assertNull(Employee.normalizeEmail(null));
+    }
 }
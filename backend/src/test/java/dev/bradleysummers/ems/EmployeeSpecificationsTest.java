@@ -0,0 +1,81 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.EmployeeSpecifications;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the employee visibility and list filters
+ */
+public class EmployeeSpecificationsTest {
+
+    @SuppressWarnings("unchecked")
+    private final Root<Employee> root = mock(Root.class);
+    private final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+    private final CriteriaBuilder cb = mock(CriteriaBuilder.class);
+    private final Predicate everyone = mock(Predicate.class);
+    private final Predicate nobody = mock(Predicate.class);
+
+    EmployeeSpecificationsTest() {
+        when(cb.conjunction()).thenReturn(everyone);
+        when(cb.disjunction()).thenReturn(nobody);
+    }
+
+    @Test
+    void verify_AdminsAndGuests_ShouldSeeEveryone() {
+        // Only admins and guests are unrestricted
+        assertNull(EmployeeSpecifications.restrictedTo(new AuthenticatedEmployee(1L, "a@x.com", Role.ADMIN)));
+        assertNull(EmployeeSpecifications.restrictedTo(new AuthenticatedEmployee(2L, "g@x.com", Role.GUEST)));
+        assertEquals(3L, EmployeeSpecifications.restrictedTo(new AuthenticatedEmployee(3L, "e@x.com", Role.EMPLOYEE)));
+
+        Predicate predicate = EmployeeSpecifications.visibleTo(new AuthenticatedEmployee(1L, "a@x.com", Role.ADMIN))
+                .toPredicate(root, query, cb);
+        assertSame(everyone, predicate);
+    }
+
+    @Test
+    void verify_Employee_ShouldOnlySeeThemselves() {
+        // The restriction is a predicate on the id, not a lookup
+        Path<Object> id = mock(Path.class);
+        Predicate self = mock(Predicate.class);
+        when(root.get("id")).thenReturn(id);
+        when(cb.equal(id, 3L)).thenReturn(self);
+
+        Predicate predicate = EmployeeSpecifications.visibleTo(new AuthenticatedEmployee(3L, "e@x.com", Role.EMPLOYEE))
+                .toPredicate(root, query, cb);
+        assertSame(self, predicate);
+    }
+
+    @Test
+    void verify_MissingFilters_ShouldMatchEveryone() {
+        // Unset request parameters must not narrow the result
+        for (Specification<Employee> spec : List.of(
+                EmployeeSpecifications.idIn(null),
+                EmployeeSpecifications.hasRole(null),
+                EmployeeSpecifications.inDepartment(null),
+                EmployeeSpecifications.isActive(null))) {
+            assertSame(everyone, spec.toPredicate(root, query, cb));
+        }
+        verifyNoInteractions(root);
+    }
+
+    @Test
+    void verify_EmptyFilters_ShouldMatchNobody() {
+        // An empty IN list is not valid SQL, so it becomes a predicate that is always false
+        assertSame(nobody, EmployeeSpecifications.idIn(List.of()).toPredicate(root, query, cb));
+        assertSame(nobody, EmployeeSpecifications.hasRole(List.of()).toPredicate(root, query, cb));
+    }
+}
@@ -0,0 +1,67 @@
+package dev.bradleysummers.ems;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bradleysummers.ems.dto.FlatOrgChart;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.OrgChartRow;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the columnar org chart encoding
+ */
+public class FlatOrgChartTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 1 manages 3, 3 manages 2, 4 reports to someone outside the result, 5 and 6 form a cycle
+    private final List<OrgChartRow> rows = List.of(
+            row(1L, null, "Engineering"),
+            row(2L, 3L, "Engineering"),
+            row(3L, 1L, "Sales"),
+            row(4L, 99L, "Sales"),
+            row(5L, 6L, null),
+            row(6L, 5L, null));
+
+    @Test
+    void of_ShouldOrderManagersBeforeReports() throws Exception {
+        JsonNode chart = objectMapper.valueToTree(FlatOrgChart.of(rows, true));
+
+        // Roots first, then each level in turn
+        assertEquals("[1,4,3,2]", chart.get("id").toString());
+        assertEquals("[-1,-1,0,2]", chart.get("parent").toString());
+        assertEquals(4, chart.get("count").asInt());
+    }
+
+    @Test
+    void of_WithoutOrphans_ShouldDropEmployeesOutsideTheTree() throws Exception {
+        JsonNode chart = objectMapper.valueToTree(FlatOrgChart.of(rows, false));
+
+        // Employee 4 and the cycle cannot be reached from a root
+        assertEquals("[1,3,2]", chart.get("id").toString());
+        assertEquals("[-1,0,1]", chart.get("parent").toString());
+    }
+
+    @Test
+    void serialize_ShouldShareRepeatedStrings() throws Exception {
+        JsonNode chart = objectMapper.valueToTree(FlatOrgChart.of(rows, true));
+
+        // Each distinct role, department and title is written once
+        assertEquals("[\"EMPLOYEE\",\"Engineering\",\"Engineer\",\"Sales\"]", chart.get("strings").toString());
+        assertEquals("[1,3,3,1]", chart.get("department").toString());
+        assertEquals("[0,0,0,0]", chart.get("role").toString());
+        assertEquals("2025-01-01T09:00:00", chart.get("createdAt").get(0).asText());
+    }
+
+    private static OrgChartRow row(Long id, Long managerId, String department) {
+        LocalDateTime timestamp = LocalDateTime.of(2025, 1, 1, 9, 0);
+        return new OrgChartRow(id, "First" + id, "Last" + id, Role.EMPLOYEE,
+                department != null ? (long) department.length() : null, department,
+                managerId, "Engineer", timestamp, timestamp);
+    }
+}
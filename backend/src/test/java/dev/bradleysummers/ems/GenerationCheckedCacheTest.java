@@ -0,0 +1,95 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.cache.GenerationCheckedCache;
+import dev.bradleysummers.ems.config.CacheConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for dropping values that were loaded while their key was evicted
+ */
+public class GenerationCheckedCacheTest {
+
+    @Test
+    void verify_Load_ShouldBeCached() {
+        GenerationCheckedCache cache = new GenerationCheckedCache(new ConcurrentMapCache("test"));
+
+        assertEquals(1L, cache.get(7L, () -> 1L));
+
+        // A second lookup is served from the cache
+        assertEquals(1L, cache.get(7L, () -> 2L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verify_EvictionDuringLoad_ShouldDropLoadedValue() {
+        Cache target = mock(Cache.class);
+        GenerationCheckedCache cache = new GenerationCheckedCache(target);
+        // A change commits and evicts the key after the loader has read the old version
+        when(target.get(eq(7L), any(Callable.class))).thenAnswer(invocation -> {
+            cache.evict(7L);
+            return 1L;
+        });
+
+        // The caller still gets what it read, but the next lookup goes to the database
+        assertEquals(1L, cache.get(7L, () -> 1L));
+        verify(target, times(2)).evict(7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verify_ClearDuringLoad_ShouldDropLoadedValue() {
+        Cache target = mock(Cache.class);
+        GenerationCheckedCache cache = new GenerationCheckedCache(target);
+        // Clearing everything, e.g. after a lost invalidation channel, counts for every key
+        when(target.get(eq(7L), any(Callable.class))).thenAnswer(invocation -> {
+            cache.clear();
+            return 1L;
+        });
+
+        cache.get(7L, () -> 1L);
+
+        verify(target).evict(7L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void verify_UnrelatedEvictionBeforeLoad_ShouldKeepLoadedValue() {
+        Cache target = mock(Cache.class);
+        GenerationCheckedCache cache = new GenerationCheckedCache(target);
+        when(target.get(eq(7L), any(Callable.class))).thenReturn(1L);
+
+        // An eviction that finished before the load started cannot have raced it
+        cache.evict(7L);
+        cache.get(7L, () -> 1L);
+
+        verify(target, times(1)).evict(7L);
+    }
+
+    @Test
+    void verify_EvictedCaches_ShouldBeChecked() {
+        CacheConfig config = new CacheConfig();
+        ReflectionTestUtils.setField(config, "departmentsSpec", "maximumSize=10");
+        ReflectionTestUtils.setField(config, "analyticsSpec", "maximumSize=10");
+        ReflectionTestUtils.setField(config, "tokenVersionsSpec", "maximumSize=10");
+        CacheManager cacheManager = config.cacheManager();
+
+        // Every cache that other replicas evict by NOTIFY is guarded; analytics only expires
+        for (String name : new String[]{CacheConfig.DEPARTMENTS, CacheConfig.DEPARTMENT_LIST, CacheConfig.TOKEN_VERSIONS}) {
+            Cache cache = ((TransactionAwareCacheDecorator) cacheManager.getCache(name)).getTargetCache();
+            assertInstanceOf(GenerationCheckedCache.class, cache, name);
+        }
+        Cache analytics = ((TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.ANALYTICS)).getTargetCache();
+        assertFalse(analytics instanceof GenerationCheckedCache);
+    }
+}
@@ -0,0 +1,87 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import dev.bradleysummers.ems.security.JwtService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the employee claims carried in access tokens
+ */
+public class JwtServiceTest {
+
+    private final JwtService jwtService = new JwtService(Duration.ofMinutes(15));
+
+    @Test
+    void verify_GeneratedToken_ShouldCarryEmployeeClaims() {
+        // Create an employee with a bumped token version
+        Employee employee = Employee.builder()
+                .id(42L)
+                .email("jane@initech.com")
+                .role(Role.GUEST)
+                .tokenVersion(3)
+                .build();
+
+        // Verify a token issued for them
+        JwtService.VerifiedToken token = jwtService.verify(jwtService.generateToken(employee));
+
+        // Assert the caller can be authorized from the claims alone
+        assertEquals(new AuthenticatedEmployee(42L, "jane@initech.com", Role.GUEST), token.employee());
+        assertEquals(3, token.tokenVersion());
+        assertEquals("jane@initech.com", token.employee().getName());
+    }
+
+    @Test
+    void verify_GeneratedTokens_ShouldBeShortLivedAndIndividuallyRevocable() {
+        Employee employee = Employee.builder().id(7L).email("a@x.com").role(Role.EMPLOYEE).build();
+
+        // Issue two tokens for the same employee
+        JwtService.VerifiedToken first = jwtService.verify(jwtService.generateToken(employee));
+        JwtService.VerifiedToken second = jwtService.verify(jwtService.generateToken(employee));
+
+        // Assert each has its own id and expires within the configured lifetime
+        assertNotEquals(first.tokenId(), second.tokenId());
+        assertTrue(first.expiresAt().isBefore(Instant.now().plus(Duration.ofMinutes(15)).plusSeconds(1)));
+        assertTrue(first.expiresAt().isAfter(Instant.now()));
+    }
+
+    @Test
+    void verify_TamperedToken_ShouldBeRejected() {
+        String token = jwtService.generateToken(Employee.builder().id(1L).email("a@x.com").role(Role.EMPLOYEE).build());
+
+        // Swap the payload for one claiming a different role, keeping the original signature
+        String[] parts = token.split("\\.");
+        String forged = Jwts.builder()
+                .setId("forged")
+                .setSubject("a@x.com")
+                .claim("uid", 1L)
+                .claim("role", "ADMIN")
+                .claim("tv", 0L)
+                .signWith(Keys.hmacShaKeyFor("aDifferentSecretKeyThatIsAlsoAtLeast256BitsLongEnough".getBytes()), SignatureAlgorithm.HS256)
+                .compact()
+                .split("\\.")[1];
+
+        assertThrows(JwtException.class, () -> jwtService.verify(parts[0] + "." + forged + "." + parts[2]));
+    }
+
+    @Test
+    void verify_TokenWithoutEmployeeClaims_ShouldBeRejected() {
+        // Tokens issued before the claims were added only carry the email
+        String legacy = Jwts.builder()
+                .setSubject("a@x.com")
+                .signWith(Keys.hmacShaKeyFor("thisIsASecretKeyForJwtGenerationThatShouldBeAtLeast256Bits".getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.verify(legacy));
+    }
+}
@@ -0,0 +1,78 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.TombstoneRepository;
+import dev.bradleysummers.ems.service.impl.EmployeeServiceImpl;
+import org.hibernate.LazyInitializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for rejecting management cycles when an employee's manager changes
+ */
+public class ManagerValidationTest {
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final EmployeeServiceImpl employeeService = new EmployeeServiceImpl(employeeRepository,
+            mock(TombstoneRepository.class), mock(PasswordEncoder.class), mock(ApplicationEventPublisher.class));
+
+    @BeforeEach
+    void existingEmployee() {
+        when(employeeRepository.findById(4L)).thenReturn(Optional.of(employee(4L, null)));
+        when(employeeRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void verify_NewManagerWithGrandManager_ShouldNotWalkDetachedChain() {
+        // The controller loaded manager 3 in its own session; 3's manager is a proxy that can
+        // no longer be initialized, as with open-in-view off
+        Employee grandManager = mock(Employee.class);
+        when(grandManager.getId()).thenReturn(2L);
+        when(grandManager.getManager()).thenThrow(new LazyInitializationException("no session"));
+        Employee manager = employee(3L, grandManager);
+        when(employeeRepository.isInManagementChain(4L, 3L)).thenReturn(false);
+
+        Employee saved = employeeService.update(4L, employee(4L, manager));
+
+        assertEquals(3L, saved.getManager().getId());
+        verify(employeeRepository).isInManagementChain(4L, 3L);
+    }
+
+    @Test
+    void verify_NewManagerReportingToEmployee_ShouldBeRejected() {
+        // 4 is somewhere above 3 in the chain, so 3 cannot become 4's manager
+        when(employeeRepository.isInManagementChain(4L, 3L)).thenReturn(true);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.update(4L, employee(4L, employee(3L, null))));
+        verify(employeeRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void verify_SelfAsManager_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> employeeService.update(4L, employee(4L, employee(4L, null))));
+        verify(employeeRepository, never()).saveAndFlush(any());
+    }
+
+    private static Employee employee(Long id, Employee manager) {
+        return Employee.builder()
+                .id(id)
+                .email("e" + id + "@x.com")
+                .role(Role.EMPLOYEE)
+                .firstName("E")
+                .lastName(String.valueOf(id))
+                .manager(manager)
+                .build();
+    }
+}
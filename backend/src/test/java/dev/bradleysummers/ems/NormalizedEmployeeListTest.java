@@ -0,0 +1,77 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.controller.EmployeeController;
+import dev.bradleysummers.ems.dto.EmployeeRefDto;
+import dev.bradleysummers.ems.dto.NormalizedEmployeeListDto;
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the normalized employee list shape and how clients opt into it
+ */
+public class NormalizedEmployeeListTest {
+
+    @Test
+    void verify_SharedDepartmentsAndManagers_ShouldAppearOnce() {
+        Department engineering = Department.builder().id(1L).name("Engineering").build();
+        Department sales = Department.builder().id(2L).name("Sales").build();
+        Employee boss = employee(1L, engineering, null);
+        Employee lead = employee(2L, engineering, boss);
+        List<Employee> employees = List.of(boss, lead,
+                employee(3L, engineering, lead), employee(4L, engineering, lead), employee(5L, sales, boss));
+
+        NormalizedEmployeeListDto list = EmployeeMapper.toNormalizedList(employees);
+
+        // Four employees share two departments and two managers between them
+        assertEquals(5, list.getEmployees().size());
+        assertEquals(List.of(1L, 2L), List.copyOf(list.getDepartments().keySet()));
+        assertEquals(List.of(1L, 2L), List.copyOf(list.getManagers().keySet()));
+        assertEquals("Sales", list.getDepartments().get(2L).getName());
+        assertEquals(2L, list.getManagers().get(2L).getId());
+
+        // Every reference resolves to an entry that was sent
+        for (EmployeeRefDto dto : list.getEmployees()) {
+            assertTrue(list.getDepartments().containsKey(dto.getDepartmentId()));
+            assertTrue(dto.getManagerId() == null || list.getManagers().containsKey(dto.getManagerId()));
+        }
+        assertEquals(2L, list.getEmployees().get(3).getManagerId());
+        assertNull(list.getEmployees().get(0).getManagerId());
+    }
+
+    @Test
+    void verify_AcceptHeader_ShouldHonorQualityValues() {
+        assertTrue(EmployeeController.prefersNormalized(EmployeeController.NORMALIZED_JSON_VALUE));
+        assertTrue(EmployeeController.prefersNormalized("application/vnd.ems.normalized+json, */*;q=0.8"));
+        assertTrue(EmployeeController.prefersNormalized("application/json;q=0.5, application/vnd.ems.normalized+json"));
+
+        // q=0 means "not acceptable", not "least preferred"
+        assertFalse(EmployeeController.prefersNormalized("application/vnd.ems.normalized+json;q=0, application/json"));
+        assertFalse(EmployeeController.prefersNormalized("application/vnd.ems.normalized+json;q=0"));
+        // Plain JSON weighted higher wins
+        assertFalse(EmployeeController.prefersNormalized("application/vnd.ems.normalized+json;q=0.5, application/json"));
+        assertFalse(EmployeeController.prefersNormalized("*/*"));
+        assertFalse(EmployeeController.prefersNormalized(null));
+        // A substring match is not a media type match
+        assertFalse(EmployeeController.prefersNormalized("application/vnd.ems.normalized+jsonx"));
+        assertFalse(EmployeeController.prefersNormalized("not a media type;;"));
+    }
+
+    private static Employee employee(Long id, Department department, Employee manager) {
+        return Employee.builder()
+                .id(id)
+                .email("e" + id + "@x.com")
+                .role(Role.EMPLOYEE)
+                .firstName("E")
+                .lastName(String.valueOf(id))
+                .department(department)
+                .manager(manager)
+                .build();
+    }
+}
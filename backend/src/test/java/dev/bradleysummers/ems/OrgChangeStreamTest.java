@@ -0,0 +1,95 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import dev.bradleysummers.ems.event.OrgChangeStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for isolating slow Server-Sent Events subscribers from writers and other subscribers
+ */
+public class OrgChangeStreamTest {
+
+    private static final int BUFFER_SIZE = 4;
+    private static final int EVENTS = 20;
+
+    private final OrgChangeStream stream = new OrgChangeStream();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void release() {
+        unblock.countDown();
+    }
+
+    @Test
+    void verify_SlowSubscriber_ShouldBeDisconnectedWithoutBlockingPublisher() throws Exception {
+        ReflectionTestUtils.setField(stream, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(stream, "timeoutMs", 60_000L);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        RecordingEmitter fast1 = new RecordingEmitter(null);
+        RecordingEmitter fast2 = new RecordingEmitter(null);
+        stream.subscribe(slow);
+        stream.subscribe(fast1);
+        stream.subscribe(fast2);
+
+        // The slow client's socket never accepts a write, so its sender stalls on the first
+        // event while the rest pile up in its buffer, well past its bound
+        for (long id = 1; id <= EVENTS; id++) {
+            OrgChangeEvent event = OrgChangeEvent.employee(ChangeAction.UPDATED, id, 1L);
+            // Publishing runs on the committing request's thread and must never wait on a socket
+            assertTimeoutPreemptively(Duration.ofMillis(500), () -> stream.onChange(event));
+            // The other clients keep up with each event before the next is published
+            assertTrue(fast1.sent.tryAcquire(5, TimeUnit.SECONDS));
+            assertTrue(fast2.sent.tryAcquire(5, TimeUnit.SECONDS));
+        }
+
+        // The overflowing subscriber is dropped so it reconnects and resynchronises
+        assertTrue(slow.completed);
+        assertEquals(2, stream.subscriberCount());
+
+        // Everyone else stays connected and saw every event
+        assertFalse(fast1.completed);
+        assertFalse(fast2.completed);
+    }
+
+    // Stands in for a client connection; sends block until released when given a latch
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch blockUntil;
+        private final Semaphore sent = new Semaphore(0);
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch blockUntil) {
+            super(60_000L);
+            this.blockUntil = blockUntil;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (blockUntil != null) {
+                try {
+                    blockUntil.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.release();
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
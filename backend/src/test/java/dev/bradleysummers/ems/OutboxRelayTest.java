@@ -0,0 +1,117 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.enums.EntityType;
+import dev.bradleysummers.ems.outbox.OutboxMessage;
+import dev.bradleysummers.ems.outbox.OutboxRelay;
+import dev.bradleysummers.ems.outbox.OutboxSink;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for relaying outbox rows to the sink
+ */
+public class OutboxRelayTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final TransactionStatus transaction = mock(TransactionStatus.class);
+    private final OutboxSink sink = mock(OutboxSink.class);
+
+    private OutboxRelay relay(int batchSize) {
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(jdbcTemplate.queryForObject(contains("count(*)"), eq(Long.class))).thenReturn(0L);
+        return new OutboxRelay(jdbcTemplate, transactionManager, sink, new SimpleMeterRegistry(), batchSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void pending(List<OutboxMessage>... batches) {
+        var stub = when(jdbcTemplate.query(contains("from outbox_events"), any(RowMapper.class), anyInt()));
+        for (List<OutboxMessage> batch : batches) {
+            stub = stub.thenReturn(batch);
+        }
+    }
+
+    private void lockAvailable(boolean available) {
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), anyLong()))
+                .thenReturn(available);
+    }
+
+    @Test
+    void relay_ShouldPublishBatchThenDeleteIt() throws Exception {
+        OutboxRelay relay = relay(10);
+        lockAvailable(true);
+        List<OutboxMessage> batch = messages(1, 3);
+        pending(batch);
+
+        relay.relay();
+
+        // The rows are only removed once the sink has accepted them, in the same transaction
+        InOrder inOrder = inOrder(sink, jdbcTemplate, transactionManager);
+        inOrder.verify(sink).publish(batch);
+        inOrder.verify(jdbcTemplate).update(any(PreparedStatementCreator.class));
+        inOrder.verify(transactionManager).commit(transaction);
+    }
+
+    @Test
+    void relay_FullBatch_ShouldDrainBacklogInOnePass() throws Exception {
+        OutboxRelay relay = relay(2);
+        lockAvailable(true);
+        pending(messages(1, 2), messages(3, 4), messages(5, 5));
+
+        relay.relay();
+
+        // Full batches are followed straight away by another, each in its own transaction
+        verify(sink, times(3)).publish(anyList());
+        verify(transactionManager, times(3)).commit(transaction);
+    }
+
+    @Test
+    void relay_SinkFailure_ShouldRollBackAndKeepRows() throws Exception {
+        OutboxRelay relay = relay(10);
+        lockAvailable(true);
+        pending(messages(1, 3));
+        doThrow(new RuntimeException("broker down")).when(sink).publish(anyList());
+
+        // The failure is logged, not thrown to the scheduler
+        assertDoesNotThrow(relay::relay);
+
+        // Nothing is deleted, so the batch is retried on the next pass
+        verify(jdbcTemplate, never()).update(any(PreparedStatementCreator.class));
+        verify(transactionManager).rollback(transaction);
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void relay_LockHeldElsewhere_ShouldSkipPass() throws Exception {
+        OutboxRelay relay = relay(10);
+        lockAvailable(false);
+
+        relay.relay();
+
+        // Another replica is relaying, so this one reads and publishes nothing
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), anyInt());
+        verifyNoInteractions(sink);
+    }
+
+    private static List<OutboxMessage> messages(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new OutboxMessage(id, EntityType.EMPLOYEE, ChangeAction.UPDATED, id, 1L,
+                        "{}", LocalDateTime.now()))
+                .toList();
+    }
+}
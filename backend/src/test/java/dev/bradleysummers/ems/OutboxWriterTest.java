@@ -0,0 +1,40 @@
+package dev.bradleysummers.ems;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import dev.bradleysummers.ems.outbox.OutboxWriter;
+import dev.bradleysummers.ems.repository.DepartmentRepository;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for writing outbox rows inside the changing transaction
+ */
+public class OutboxWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final OutboxWriter writer = new OutboxWriter(jdbcTemplate, new ObjectMapper(), employeeRepository,
+            mock(DepartmentRepository.class), entityManager);
+
+    @Test
+    void verify_Delete_ShouldFlushBeforeTakingOutboxId() {
+        writer.onChange(OrgChangeEvent.employee(ChangeAction.DELETED, 5L, 3L));
+
+        // The row lock from the delete must be held before the id is drawn from the sequence
+        InOrder inOrder = inOrder(entityManager, jdbcTemplate);
+        inOrder.verify(entityManager).flush();
+        inOrder.verify(jdbcTemplate).update(startsWith("insert into outbox_events"),
+                eq("EMPLOYEE"), eq("DELETED"), eq(5L), eq(3L), isNull(), any());
+        // A deleted entity has no body to look up
+        verifyNoInteractions(employeeRepository);
+    }
+}
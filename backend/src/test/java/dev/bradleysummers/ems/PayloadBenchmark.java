@@ -0,0 +1,150 @@
+package dev.bradleysummers.ems;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.bradleysummers.ems.dto.EmployeeResponseDto;
+import dev.bradleysummers.ems.dto.HierarchyNodeDto;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.OrgChartRow;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import dev.bradleysummers.ems.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bytes on the wire and serialization CPU for the two largest responses, with and without
+ * gzip. Not part of the normal test run; use {@code mvn -Pbenchmark test}.
+ */
+public class PayloadBenchmark {
+
+    private final ObjectMapper objectMapper = BenchmarkData.jackson().build();
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void employeeList() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+
+        double mapMillis = BenchmarkData.cpuMillis(() -> employees.stream().map(EmployeeMapper::toDto).toList());
+        List<EmployeeResponseDto> dtos = employees.stream().map(EmployeeMapper::toDto).toList();
+
+        report("GET /api/employees (" + employees.size() + " employees)", mapMillis, dtos);
+    }
+
+    @Test
+    void normalizedEmployeeList() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+
+        BenchmarkData.Task nested = () -> objectMapper.writeValueAsBytes(
+                employees.stream().map(EmployeeMapper::toDto).toList());
+        BenchmarkData.Task normalized = () -> objectMapper.writeValueAsBytes(
+                EmployeeMapper.toNormalizedList(employees));
+        byte[] nestedJson = (byte[]) nested.run();
+        byte[] normalizedJson = (byte[]) normalized.run();
+
+        System.out.println("GET /api/employees nested vs ?format=normalized (" + employees.size() + " employees)");
+        BenchmarkData.row("nested: map + JSON", nestedJson.length, BenchmarkData.cpuMillis(nested));
+        BenchmarkData.row("nested: gzip", gzip(nestedJson).length, 0);
+        BenchmarkData.row("nested: heap allocated", BenchmarkData.allocatedBytes(nested), 0);
+        BenchmarkData.row("normalized: map + JSON", normalizedJson.length, BenchmarkData.cpuMillis(normalized));
+        BenchmarkData.row("normalized: gzip", gzip(normalizedJson).length, 0);
+        BenchmarkData.row("normalized: heap allocated", BenchmarkData.allocatedBytes(normalized), 0);
+    }
+
+    @Test
+    void orgChart() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+        Employee admin = employees.get(0);
+
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        when(repository.findAll(any(Specification.class), any(Sort.class))).thenReturn(employees);
+        ReportService reportService = new ReportService(repository, null, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), Optional.empty());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        new AuthenticatedEmployee(admin.getId(), admin.getEmail(), admin.getRole()), null, List.of()));
+
+        double buildMillis = BenchmarkData.cpuMillis(() -> reportService.generateHierarchyReport(null, null));
+        List<HierarchyNodeDto> tree = reportService.generateHierarchyReport(null, null);
+
+        report("GET /api/reports/orgchart (" + employees.size() + " employees)", buildMillis, tree);
+    }
+
+    @Test
+    void flatOrgChart() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+        Employee admin = employees.get(0);
+        List<OrgChartRow> rows = employees.stream().map(PayloadBenchmark::toRow).toList();
+
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        when(repository.findAll(any(Specification.class), any(Sort.class))).thenReturn(employees);
+        when(repository.findOrgChartRows(any())).thenReturn(rows);
+        ReportService reportService = new ReportService(repository, null, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), Optional.empty());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        new AuthenticatedEmployee(admin.getId(), admin.getEmail(), admin.getRole()), null, List.of()));
+
+        BenchmarkData.Task nested = () -> objectMapper.writeValueAsBytes(reportService.generateHierarchyReport(null, null));
+        BenchmarkData.Task flat = () -> objectMapper.writeValueAsBytes(reportService.generateFlatHierarchyReport(null, null));
+        byte[] nestedJson = (byte[]) nested.run();
+        byte[] flatJson = (byte[]) flat.run();
+
+        System.out.println("GET /api/reports/orgchart vs /orgchart/flat (" + employees.size() + " employees)");
+        BenchmarkData.row("nested: build + JSON", nestedJson.length, BenchmarkData.cpuMillis(nested));
+        BenchmarkData.row("nested: gzip", gzip(nestedJson).length, 0);
+        BenchmarkData.row("nested: heap allocated", BenchmarkData.allocatedBytes(nested), 0);
+        BenchmarkData.row("flat: build + JSON", flatJson.length, BenchmarkData.cpuMillis(flat));
+        BenchmarkData.row("flat: gzip", gzip(flatJson).length, 0);
+        BenchmarkData.row("flat: heap allocated", BenchmarkData.allocatedBytes(flat), 0);
+    }
+
+    private static OrgChartRow toRow(Employee e) {
+        return new OrgChartRow(e.getId(), e.getFirstName(), e.getLastName(), e.getRole(),
+                e.getDepartment().getId(), e.getDepartment().getName(),
+                e.getManager() != null ? e.getManager().getId() : null,
+                e.getJobTitle(), e.getCreatedAt(), e.getUpdatedAt());
+    }
+
+    private void report(String title, double buildMillis, Object body) throws Exception {
+        byte[] json = objectMapper.writeValueAsBytes(body);
+        double serializeMillis = BenchmarkData.cpuMillis(() -> objectMapper.writeValueAsBytes(body));
+        byte[] gzipped = gzip(json);
+        double gzipMillis = BenchmarkData.cpuMillis(() -> gzip(json));
+
+        System.out.println(title);
+        BenchmarkData.row("build response objects", 0, buildMillis);
+        BenchmarkData.row("JSON (before)", json.length, serializeMillis);
+        BenchmarkData.row("JSON + gzip (after)", gzipped.length, serializeMillis + gzipMillis);
+        System.out.printf("  gzip saves %.1f%% of bytes for %.2f ms extra CPU%n",
+                100.0 * (json.length - gzipped.length) / json.length, gzipMillis);
+    }
+
+    // Same encoder Tomcat uses for server.compression
+    private static byte[] gzip(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
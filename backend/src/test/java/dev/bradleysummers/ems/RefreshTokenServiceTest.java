@@ -0,0 +1,133 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import dev.bradleysummers.ems.security.RefreshTokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for rotating refresh tokens and revoking reused families
+ */
+public class RefreshTokenServiceTest {
+
+    private static final UUID FAMILY = UUID.randomUUID();
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RefreshTokenService refreshTokenService = new RefreshTokenService(jdbcTemplate, Duration.ofDays(14));
+
+    @Test
+    void verify_FirstUse_ShouldMarkUsedAndIssueNextInFamily() throws Exception {
+        stored(null, true);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("token");
+
+        // The new access token is built from the employee as read with the token
+        assertEquals(new AuthenticatedEmployee(5L, "e5@x.com", Role.GUEST), rotation.employee());
+        assertEquals(2L, rotation.tokenVersion());
+        assertNotNull(rotation.refreshToken());
+        assertNotEquals("token", rotation.refreshToken());
+        verify(jdbcTemplate).update(startsWith("update refresh_tokens set used_at"), any(Timestamp.class), eq(11L));
+        // The replacement joins the same family, so a later reuse of either revokes both
+        verify(jdbcTemplate).update(startsWith("insert into refresh_tokens"),
+                eq(5L), eq(FAMILY), eq(2L), anyString(), any(Timestamp.class), any(Timestamp.class));
+        verify(jdbcTemplate, never()).update(contains("set revoked_at"), any(Timestamp.class), any(UUID.class));
+    }
+
+    @Test
+    void verify_SecondUse_ShouldRevokeFamily() throws Exception {
+        // The token was already exchanged once, so one of the two holders is not the employee
+        stored(LocalDateTime.now().minusMinutes(1), true);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.rotate("token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        verify(jdbcTemplate).update(contains("set revoked_at = ? where family_id = ?"), any(Timestamp.class), eq(FAMILY));
+        verify(jdbcTemplate, never()).update(startsWith("insert into refresh_tokens"), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void verify_InactiveEmployee_ShouldRevokeFamily() throws Exception {
+        stored(null, false);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.rotate("token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        verify(jdbcTemplate).update(contains("set revoked_at = ? where family_id = ?"), any(Timestamp.class), eq(FAMILY));
+        verify(jdbcTemplate, never()).update(startsWith("insert into refresh_tokens"), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void verify_TokenVersionBumped_ShouldRevokeFamily() throws Exception {
+        // The family was issued at version 2; a password reset or role change has since moved
+        // the employee to 3, which already revoked their access tokens
+        stored(null, true, 3L);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.rotate("token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+        verify(jdbcTemplate).update(contains("set revoked_at = ? where family_id = ?"), any(Timestamp.class), eq(FAMILY));
+        verify(jdbcTemplate, never()).update(startsWith("insert into refresh_tokens"), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void verify_UnknownToken_ShouldBeRejected() {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), anyString())).thenReturn(List.of());
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> refreshTokenService.rotate("token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, e.getStatusCode());
+    }
+
+    @Test
+    void verify_Rejection_ShouldStillCommitRevocation() throws Exception {
+        // The 401 must not roll back the family revocation made just before it
+        Transactional transactional = RefreshTokenService.class.getMethod("rotate", String.class)
+                .getAnnotation(Transactional.class);
+
+        assertTrue(List.of(transactional.noRollbackFor()).contains(ResponseStatusException.class));
+    }
+
+    // Stubs the row lookup with the token's stored state, mapped through the service's own row mapper
+    private void stored(LocalDateTime usedAt, boolean active) throws Exception {
+        stored(usedAt, active, 2L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stored(LocalDateTime usedAt, boolean active, long currentTokenVersion) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(11L);
+        when(rs.getLong("employee_id")).thenReturn(5L);
+        when(rs.getObject("family_id", UUID.class)).thenReturn(FAMILY);
+        when(rs.getLong("token_version")).thenReturn(2L);
+        when(rs.getLong("current_token_version")).thenReturn(currentTokenVersion);
+        when(rs.getTimestamp("expires_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now().plusDays(1)));
+        when(rs.getTimestamp("used_at")).thenReturn(usedAt != null ? Timestamp.valueOf(usedAt) : null);
+        when(rs.getTimestamp("revoked_at")).thenReturn(null);
+        when(rs.getBoolean("active")).thenReturn(active);
+        when(rs.getString("email")).thenReturn("e5@x.com");
+        when(rs.getString("role")).thenReturn("GUEST");
+
+        when(jdbcTemplate.query(contains("from refresh_tokens"), any(RowMapper.class), anyString()))
+                .thenAnswer(invocation -> List.of(invocation.getArgument(1, RowMapper.class).mapRow(rs, 0)));
+    }
+}
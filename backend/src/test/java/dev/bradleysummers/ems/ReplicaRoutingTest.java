@@ -0,0 +1,96 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.datasource.PrimaryPinning;
+import dev.bradleysummers.ems.datasource.ReplicaDataSourceConfig;
+import dev.bradleysummers.ems.enums.ChangeAction;
+import dev.bradleysummers.ems.event.OrgChangeEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for sending read-only connections to the replica
+ */
+public class ReplicaRoutingTest {
+
+    private final DataSource primary = mock(DataSource.class);
+    private final DataSource replica = mock(DataSource.class);
+    private final PrimaryPinning pinning = new PrimaryPinning(Duration.ofMinutes(1));
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(primary.getConnection()).thenReturn(mock(Connection.class));
+        when(replica.getConnection()).thenReturn(mock(Connection.class));
+        dataSource = new ReplicaDataSourceConfig().dataSource(primary, replica, pinning);
+        // The proxy reads the pool defaults from the primary once; only count what the tests do
+        ((LazyConnectionDataSourceProxy) dataSource).checkDefaultConnectionProperties();
+        clearInvocations(primary, replica);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("a@x.com", null, "ROLE_EMPLOYEE"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyConnection_ShouldUseReplica() throws Exception {
+        // Mark the connection read-only the way a readOnly transaction does, then use it
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void writableConnection_ShouldUsePrimary() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyConnection_AfterCallersOwnWrite_ShouldUsePrimary() throws Exception {
+        // The caller just committed a change
+        pinning.onChange(OrgChangeEvent.employee(ChangeAction.UPDATED, 1L, 2L));
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(primary).getConnection();
+        verify(replica, never()).getConnection();
+    }
+
+    @Test
+    void readOnlyConnection_AfterSomeoneElsesWrite_ShouldUseReplica() throws Exception {
+        pinning.onChange(OrgChangeEvent.employee(ChangeAction.UPDATED, 1L, 2L));
+
+        // A different caller reads
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("b@x.com", null, "ROLE_GUEST"));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            connection.createStatement();
+        }
+
+        verify(replica).getConnection();
+        verify(primary, never()).getConnection();
+    }
+}
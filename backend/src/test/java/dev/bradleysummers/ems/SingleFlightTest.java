@@ -0,0 +1,121 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.cache.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for coalescing concurrent identical calls
+ */
+public class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void verify_ConcurrentCalls_ShouldShareOneComputation() throws Exception {
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            // Start ten identical calls while the first one is still computing
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                results.add(executor.submit(() -> flight.execute("chart", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return "result";
+                })));
+            }
+            waitUntil(() -> coalesced() == 9);
+            release.countDown();
+
+            // Assert everyone got the one result
+            for (Future<String> result : results) {
+                assertEquals("result", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, meterRegistry.get("ems.singleflight.executed").tag("name", "test").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void verify_DifferentKeys_ShouldNotBeCoalesced() {
+        // Nested calls with different keys both run
+        String result = flight.execute("a", () -> flight.execute("b", () -> "b") + "a");
+
+        assertEquals("ba", result);
+        assertEquals(0, coalesced());
+    }
+
+    @Test
+    void verify_FinishedFlight_ShouldNotServeLaterCalls() {
+        // Once a computation has finished, the next call computes again
+        AtomicInteger computations = new AtomicInteger();
+        flight.execute("chart", () -> "first " + computations.incrementAndGet());
+        String second = flight.execute("chart", () -> "second " + computations.incrementAndGet());
+
+        assertEquals("second 2", second);
+    }
+
+    @Test
+    void verify_Failure_ShouldReachEveryWaiter() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The leader fails while a second call is waiting on it
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> flight.execute("chart", () -> {
+                    await(release);
+                    throw new IllegalStateException("boom");
+                })));
+            }
+            waitUntil(() -> coalesced() == 1);
+            release.countDown();
+
+            // Assert both callers see the original exception
+            for (Future<String> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("boom", e.getCause().getMessage());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("ems.singleflight.coalesced").tag("name", "test").counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for callers to join");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.EmployeeField;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the fields= parameter on the employee list
+ */
+public class SparseFieldsTest {
+
+    @Test
+    void verify_FieldList_ShouldParseToFields() {
+        // Whitespace and repeats are tolerated
+        Set<EmployeeField> fields = EmployeeField.parse("firstName, lastName,department,,firstName");
+
+        assertEquals(EnumSet.of(EmployeeField.FIRST_NAME, EmployeeField.LAST_NAME, EmployeeField.DEPARTMENT), fields);
+    }
+
+    @Test
+    void verify_UnknownField_ShouldBeRejected() {
+        // A typo must not silently produce an empty property
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> EmployeeField.parse("firstName,salary"));
+        assertTrue(e.getMessage().contains("salary"));
+    }
+
+    @Test
+    void verify_SparseDto_ShouldMatchFullDtoShape() {
+        // A row with a department but no manager
+        Tuple row = mock(Tuple.class);
+        when(row.get("jobTitle")).thenReturn("Engineer");
+        when(row.get("createdAt")).thenReturn(LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+        when(row.get("department.id")).thenReturn(7L);
+        when(row.get("department.name")).thenReturn("Engineering");
+        when(row.get("manager.id")).thenReturn(null);
+
+        Map<String, Object> dto = EmployeeMapper.toSparseDtos(List.of(row), EnumSet.of(
+                EmployeeField.JOB_TITLE, EmployeeField.CREATED_AT, EmployeeField.DEPARTMENT, EmployeeField.MANAGER)).get(0);
+
+        // Assert only the requested properties, nested and formatted like EmployeeResponseDto
+        assertEquals(List.of("jobTitle", "createdAt", "department", "manager"), List.copyOf(dto.keySet()));
+        assertEquals("2025-01-02T03:04:05", dto.get("createdAt"));
+        assertEquals(Map.of("id", 7L, "name", "Engineering"), dto.get("department"));
+        assertNull(dto.get("manager"));
+    }
+}
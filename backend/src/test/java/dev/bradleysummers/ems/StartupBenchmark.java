@@ -0,0 +1,139 @@
+package dev.bradleysummers.ems;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Wall-clock time from JVM launch until the application context has refreshed, for each of
+ * the startup options the Dockerfile can combine. Every run is a fresh JVM that exits as
+ * soon as the context is ready ({@code spring.context.exit=onRefresh}).
+ * <p>
+ * Without a {@code DATASOURCE_URL} in the environment the runs are database-less: Flyway is
+ * off and Hibernate is told not to read JDBC metadata, which is also what the Docker CDS
+ * training run does. The AOT row needs the classes generated by {@code mvn -Paot package}
+ * and a reachable database, because AOT fixes {@code spring.flyway.enabled} at build time.
+ * Not part of the normal test run; use {@code mvn -Pbenchmark test}.
+ */
+public class StartupBenchmark {
+
+    private static final int RUNS = 3;
+    private static final String MAIN_CLASS = "dev.bradleysummers.ems.EmsApplication";
+    private static final boolean DATABASE = System.getenv("DATASOURCE_URL") != null;
+
+    private static Path workDir;
+    private static String classPath;
+
+    @BeforeAll
+    static void packageApplication() throws IOException {
+        workDir = Files.createTempDirectory("ems-startup");
+        // CDS refuses class path entries that are non-empty directories, so the compiled
+        // classes are jarred up the way the real build would
+        Path appJar = workDir.resolve("ems.jar");
+        jar(Path.of("target", "classes"), appJar);
+
+        List<String> entries = new ArrayList<>();
+        entries.add(appJar.toString());
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            // Devtools is left out of the packaged jar and would restart the context here
+            if (entry.endsWith(".jar") && !entry.contains("spring-boot-devtools")) {
+                entries.add(entry);
+            }
+        }
+        classPath = String.join(File.pathSeparator, entries);
+    }
+
+    @Test
+    void startup() throws Exception {
+        System.out.println("Startup to context refresh, median of " + RUNS + " runs"
+                + (DATABASE ? "" : " (no database)"));
+
+        row("default", median());
+        row("lazy initialization", median("-DLAZY_INIT=true"));
+        row("no schema introspection", median("-DJPA_DDL_AUTO=none", "-DJPA_JDBC_METADATA_ACCESS=false"));
+
+        Path archive = workDir.resolve("ems.jsa");
+        launch("-XX:ArchiveClassesAtExit=" + archive);
+        row("CDS", median("-XX:SharedArchiveFile=" + archive));
+
+        if (DATABASE && Files.exists(Path.of("target", "classes", "dev", "bradleysummers", "ems",
+                "EmsApplication__ApplicationContextInitializer.class"))) {
+            row("CDS + AOT + no introspection", median("-XX:SharedArchiveFile=" + archive,
+                    "-Dspring.aot.enabled=true", "-DJPA_DDL_AUTO=none", "-DJPA_JDBC_METADATA_ACCESS=false"));
+        }
+    }
+
+    private static double median(String... options) throws Exception {
+        double[] samples = new double[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            samples[i] = launch(options);
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private static double launch(String... options) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(List.of(options));
+        command.add("-Dspring.context.exit=onRefresh");
+        command.add("-Dserver.port=0");
+        command.add("-DFRONTEND_URL=http://localhost");
+        if (!DATABASE) {
+            command.add("-DDATASOURCE_URL=jdbc:postgresql://127.0.0.1:1/none");
+            command.add("-DFLYWAY_ENABLED=false");
+            command.add("-DJPA_DDL_AUTO=none");
+            command.add("-DJPA_JDBC_METADATA_ACCESS=false");
+        }
+        command.add("-cp");
+        command.add(classPath);
+        command.add(MAIN_CLASS);
+
+        Path log = workDir.resolve("startup.log");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        int exitCode = process.waitFor();
+        double millis = (System.nanoTime() - start) / 1_000_000.0;
+
+        assertEquals(0, exitCode, () -> "Startup failed with " + String.join(" ", options) + ", see " + log);
+        return millis;
+    }
+
+    private static void jar(Path classes, Path target) throws IOException {
+        try (OutputStream out = Files.newOutputStream(target);
+             JarOutputStream jar = new JarOutputStream(out);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> !path.equals(classes))::iterator) {
+                String name = classes.relativize(file).toString().replace(File.separatorChar, '/');
+                // Directory entries are needed for classpath scanning (components, migrations)
+                if (Files.isDirectory(file)) {
+                    jar.putNextEntry(new JarEntry(name + "/"));
+                } else {
+                    jar.putNextEntry(new JarEntry(name));
+                    Files.copy(file, jar);
+                }
+                jar.closeEntry();
+            }
+        }
+    }
+
+    private static void row(String label, double millis) {
+        System.out.printf("  %-38s %10.0f ms%n", label, millis);
+    }
+}
@@ -0,0 +1,153 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.dto.sync.ChangeFeedDto;
+import dev.bradleysummers.ems.entity.Department;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.entity.Tombstone;
+import dev.bradleysummers.ems.enums.EntityType;
+import dev.bradleysummers.ems.enums.Role;
+import dev.bradleysummers.ems.repository.DepartmentRepository;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.repository.TombstoneRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import dev.bradleysummers.ems.service.SyncService;
+import dev.bradleysummers.ems.service.SyncWatermark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for paging through the change feed
+ */
+public class SyncServiceTest {
+
+    private final EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+    private final TombstoneRepository tombstoneRepository = mock(TombstoneRepository.class);
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final SyncService syncService = new SyncService(employeeRepository, tombstoneRepository, departmentRepository);
+
+    @BeforeEach
+    void signIn() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedEmployee(1L, "admin@x.com", Role.ADMIN), null, List.of()));
+        when(employeeRepository.findChangeHorizon()).thenReturn(500L);
+        when(departmentRepository.findChangedSince(anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void signOut() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void verify_FullPage_ShouldAdvanceCursorToLastRowReturned() {
+        // Three changes are waiting but only two fit on the page
+        when(employeeRepository.findChangedSince(0, 0, 500, PageRequest.of(0, 3)))
+                .thenReturn(List.of(employee(10, 100), employee(11, 100), employee(12, 300)));
+        when(tombstoneRepository.findChangedSince(0, 0, 500, PageRequest.of(0, 3)))
+                .thenReturn(List.of(tombstone(4, 200)));
+
+        ChangeFeedDto page = syncService.changesSince(null, 2);
+
+        assertEquals(List.of(10L, 11L), page.getChanged().stream().map(e -> e.getId()).toList());
+        assertEquals(1, page.getDeleted().size());
+        assertTrue(page.isHasMore());
+        assertEquals(new SyncWatermark(100, 11, 200, 4, 0, 0), SyncWatermark.decode(page.getWatermark()));
+    }
+
+    @Test
+    void verify_NextPage_ShouldResumeFromWatermark() {
+        // The cursor from the previous page is passed straight back to both queries
+        String watermark = new SyncWatermark(100, 11, 200, 4, 0, 0).encode();
+        when(employeeRepository.findChangedSince(100, 11, 500, PageRequest.of(0, 3)))
+                .thenReturn(List.of(employee(12, 300)));
+        when(tombstoneRepository.findChangedSince(200, 4, 500, PageRequest.of(0, 3)))
+                .thenReturn(List.of());
+
+        ChangeFeedDto page = syncService.changesSince(watermark, 2);
+
+        assertEquals(List.of(12L), page.getChanged().stream().map(e -> e.getId()).toList());
+        assertFalse(page.isHasMore());
+        // An empty tombstone stream keeps its cursor
+        assertEquals(new SyncWatermark(300, 12, 200, 4, 0, 0), SyncWatermark.decode(page.getWatermark()));
+    }
+
+    @Test
+    void verify_EmptyPage_ShouldKeepWatermark() {
+        // Nothing new below the horizon, so the client polls again from the same place
+        String watermark = new SyncWatermark(100, 11, 200, 4, 0, 0).encode();
+        when(employeeRepository.findChangedSince(anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(tombstoneRepository.findChangedSince(anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+
+        ChangeFeedDto page = syncService.changesSince(watermark, 2);
+
+        assertEquals(watermark, page.getWatermark());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    void verify_RenamedDepartment_ShouldBeServedWithItsOwnCursor() {
+        // A rename writes only the department row; none of its employees change
+        String watermark = new SyncWatermark(100, 11, 200, 4, 50, 1).encode();
+        when(employeeRepository.findChangedSince(anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(tombstoneRepository.findChangedSince(anyLong(), anyLong(), anyLong(), any())).thenReturn(List.of());
+        when(departmentRepository.findChangedSince(50, 1, 500, PageRequest.of(0, 3)))
+                .thenReturn(List.of(department(1, "Platform", 400)));
+
+        ChangeFeedDto page = syncService.changesSince(watermark, 2);
+
+        assertEquals(1, page.getDepartments().size());
+        assertEquals("Platform", page.getDepartments().get(0).getName());
+        assertTrue(page.getChanged().isEmpty());
+        assertEquals(new SyncWatermark(100, 11, 200, 4, 400, 1), SyncWatermark.decode(page.getWatermark()));
+    }
+
+    @Test
+    void verify_Employee_ShouldNotReadFeed() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedEmployee(2L, "e@x.com", Role.EMPLOYEE), null, List.of()));
+
+        assertThrows(RuntimeException.class, () -> syncService.changesSince(null, 2));
+        verify(employeeRepository, never()).findChangedSince(anyLong(), anyLong(), anyLong(), any());
+    }
+
+    private static Employee employee(long id, long changeXid) {
+        return Employee.builder()
+                .id(id)
+                .email("e" + id + "@x.com")
+                .password("x")
+                .role(Role.EMPLOYEE)
+                .firstName("E")
+                .lastName(String.valueOf(id))
+                .changeXid(changeXid)
+                .build();
+    }
+
+    private static Department department(long id, String name, long changeXid) {
+        return Department.builder()
+                .id(id)
+                .name(name)
+                .changeXid(changeXid)
+                .build();
+    }
+
+    private static Tombstone tombstone(long id, long changeXid) {
+        return Tombstone.builder()
+                .id(id)
+                .entityType(EntityType.EMPLOYEE)
+                .entityId(id)
+                .deletedAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .changeXid(changeXid)
+                .build();
+    }
+}
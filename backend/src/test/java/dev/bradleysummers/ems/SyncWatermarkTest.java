@@ -0,0 +1,49 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.service.SyncWatermark;
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for encoding and decoding change feed watermarks
+ */
+public class SyncWatermarkTest {
+
+    @Test
+    void decode_EmptyWatermark_ShouldStartFromBeginning() {
+        assertEquals(SyncWatermark.START, SyncWatermark.decode(null));
+        assertEquals(SyncWatermark.START, SyncWatermark.decode(""));
+    }
+
+    @Test
+    void encodeThenDecode_ShouldRoundTrip() {
+        // Create a watermark with transaction ids past the 32-bit range
+        SyncWatermark watermark = new SyncWatermark(5_000_000_000L, 42, 4_999_999_999L, 7, 5_000_000_001L, 3);
+
+        // Decode the encoded form
+        SyncWatermark decoded = SyncWatermark.decode(watermark.encode());
+
+        // Assert nothing was lost
+        assertEquals(watermark, decoded);
+    }
+
+    @Test
+    void decode_WatermarkWithoutDepartments_ShouldResumeDepartmentsFromStart() {
+        // Issued before departments had their own stream
+        String older = Base64.getUrlEncoder().withoutPadding().encodeToString("100|11|200|4".getBytes());
+
+        assertEquals(new SyncWatermark(100, 11, 200, 4, 0, 0), SyncWatermark.decode(older));
+    }
+
+    @Test
+    void decode_GarbageWatermark_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode("not-a-watermark"));
+
+        // Watermarks from the earlier updated_at based feed cannot be resumed
+        String timestamped = Base64.getUrlEncoder().encodeToString("2025-03-14T09:26:53|42|7".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> SyncWatermark.decode(timestamped));
+    }
+}
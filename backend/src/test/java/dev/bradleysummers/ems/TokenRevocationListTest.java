@@ -0,0 +1,53 @@
+package dev.bradleysummers.ems;
+
+import dev.bradleysummers.ems.security.TokenRevocationList;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the in-memory set of revoked access tokens
+ */
+public class TokenRevocationListTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TokenRevocationList revocationList = new TokenRevocationList(jdbcTemplate, new DataSourceProperties());
+
+    @Test
+    void verify_AnnouncedRevocation_ShouldBeApplied() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        revocationList.apply("jti-1:" + expiresAt);
+
+        assertTrue(revocationList.isRevoked("jti-1"));
+        assertFalse(revocationList.isRevoked("jti-2"));
+    }
+
+    @Test
+    void verify_MalformedAnnouncement_ShouldBeIgnored() {
+        revocationList.apply("jti-1");
+
+        assertFalse(revocationList.isRevoked("jti-1"));
+    }
+
+    @Test
+    void verify_Purge_ShouldDropOnlyExpiredTokens() {
+        long now = System.currentTimeMillis();
+        revocationList.apply("expired:" + (now - 1_000));
+        revocationList.apply("live:" + (now + 60_000));
+
+        revocationList.purgeExpired();
+
+        // An expired token is rejected on its expiry anyway, so it no longer needs an entry
+        assertFalse(revocationList.isRevoked("expired"));
+        assertTrue(revocationList.isRevoked("live"));
+        verify(jdbcTemplate).update(startsWith("delete from revoked_access_tokens where expires_at < ?"),
+                any(Timestamp.class));
+    }
+}
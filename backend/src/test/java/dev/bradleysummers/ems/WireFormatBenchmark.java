@@ -0,0 +1,93 @@
+package dev.bradleysummers.ems;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import dev.bradleysummers.ems.dto.EmployeeResponseDto;
+import dev.bradleysummers.ems.dto.HierarchyNodeDto;
+import dev.bradleysummers.ems.entity.Employee;
+import dev.bradleysummers.ems.mapper.EmployeeMapper;
+import dev.bradleysummers.ems.repository.EmployeeRepository;
+import dev.bradleysummers.ems.security.AuthenticatedEmployee;
+import dev.bradleysummers.ems.service.ReportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Size plus encode and decode CPU for JSON against the CBOR and Smile encodings offered to
+ * bulk consumers. Not part of the normal test run; use {@code mvn -Pbenchmark test}.
+ */
+public class WireFormatBenchmark {
+
+    // Configured the same way as the converters in WireFormatConfig
+    private final Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+    {
+        mappers.put("JSON", BenchmarkData.jackson().build());
+        mappers.put("CBOR", BenchmarkData.jackson().factory(new CBORFactory()).build());
+        mappers.put("Smile", BenchmarkData.jackson().factory(new SmileFactory()).build());
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void employeeList() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+        List<EmployeeResponseDto> dtos = employees.stream().map(EmployeeMapper::toDto).toList();
+
+        compare("GET /api/employees (" + employees.size() + " employees)", dtos,
+                new TypeReference<List<EmployeeResponseDto>>() { });
+    }
+
+    @Test
+    void orgChart() throws Exception {
+        List<Employee> employees = BenchmarkData.org(BenchmarkData.EMPLOYEES);
+        Employee admin = employees.get(0);
+
+        EmployeeRepository repository = mock(EmployeeRepository.class);
+        when(repository.findAll(any(Specification.class), any(Sort.class))).thenReturn(employees);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                        new AuthenticatedEmployee(admin.getId(), admin.getEmail(), admin.getRole()), null, List.of()));
+        ReportService reportService = new ReportService(repository, null, mock(PlatformTransactionManager.class),
+                new SimpleMeterRegistry(), Optional.empty());
+        List<HierarchyNodeDto> tree = reportService.generateHierarchyReport(null, null);
+
+        compare("GET /api/reports/orgchart (" + employees.size() + " employees)", tree,
+                new TypeReference<List<HierarchyNodeDto>>() { });
+    }
+
+    private <T> void compare(String title, T body, TypeReference<T> type) throws Exception {
+        System.out.println(title);
+        for (Map.Entry<String, ObjectMapper> format : mappers.entrySet()) {
+            ObjectMapper mapper = format.getValue();
+            byte[] encoded = mapper.writeValueAsBytes(body);
+            // Sanity check that the format round-trips the DTOs
+            assertEquals(body, mapper.readValue(encoded, type));
+
+            BenchmarkData.row(format.getKey() + " encode", encoded.length,
+                    BenchmarkData.cpuMillis(() -> mapper.writeValueAsBytes(body)));
+            BenchmarkData.row(format.getKey() + " decode", 0,
+                    BenchmarkData.cpuMillis(() -> mapper.readValue(encoded, type)));
+        }
+    }
+}
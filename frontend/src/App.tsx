@@ -1,8 +1,9 @@
-import { useState, useEffect } from "react"
+import { useState, useEffect, useCallback } from "react"
 import { Routes, Route, Navigate, useNavigate } from "react-router-dom"
 import { Toaster } from "sonner"
 import axios from "axios"
 import { API_URL } from './utils/api';
+import { useTokenRefresh, type AuthSession } from "@/hooks/useTokenRefresh"
 import Login from "@/features/auth/Login"
 import Setup from "@/features/auth/Setup"
 import EmployeeList from "@/features/employees/EmployeeList"
@@ -36,24 +37,56 @@ export default function App() {
         checkSetupStatus()
     }, [])
 
-    const handleLogin = (newToken: string) => {
-        setToken(newToken)
-        localStorage.setItem("token", newToken)
+    const storeSession = useCallback((session: AuthSession) => {
+        localStorage.setItem("token", session.token)
+        localStorage.setItem("refreshToken", session.refreshToken)
+        setToken(session.token)
+    }, [])
+
+    const handleLogin = (session: AuthSession) => {
+        storeSession(session)
         navigate("/employees")
     }
 
-    const handleSetupComplete = (newToken: string) => {
+    const handleSetupComplete = (session: AuthSession) => {
         setNeedsSetup(false)
-        setToken(newToken)
-        localStorage.setItem("token", newToken)
+        storeSession(session)
         navigate("/employees")
     }
 
-    const handleLogout = () => {
+    const handleLogout = useCallback(() => {
+        const currentToken = localStorage.getItem("token")
+        const refreshToken = localStorage.getItem("refreshToken")
+        // Revoke server-side too; the local session is cleared either way
+        axios.post(`${API_URL}/api/auth/logout`, { refreshToken }, {
+            headers: currentToken ? { Authorization: `Bearer ${currentToken}` } : {}
+        }).catch(() => {})
+
         setToken(null)
         localStorage.removeItem("token")
+        localStorage.removeItem("refreshToken")
         navigate("/login")
-    }
+    }, [navigate])
+
+    const handleSessionExpired = useCallback(() => {
+        setToken(null)
+        localStorage.removeItem("token")
+        localStorage.removeItem("refreshToken")
+        navigate("/login")
+    }, [navigate])
+
+    useTokenRefresh(token, storeSession, handleSessionExpired)
+
+    // Follow logins, refreshes and logouts made in other tabs
+    useEffect(() => {
+        const onStorage = (event: StorageEvent) => {
+            if (event.key !== "token") return
+            setToken(event.newValue)
+            if (!event.newValue) navigate("/login")
+        }
+        window.addEventListener("storage", onStorage)
+        return () => window.removeEventListener("storage", onStorage)
+    }, [navigate])
 
     if (loading) {
         return (
@@ -20,46 +20,64 @@ import {
     BreadcrumbSeparator,
 } from "@/components/ui/breadcrumb"
 
-function AppBreadcrumbs() {
+/**
+ * Name of the employee or department the current route points at (/employees/:id or
+ * /departments/:id). Fetched once through the batch list endpoints for both the
+ * breadcrumbs and the page title.
+ */
+function useRouteEntityName() {
     const location = useLocation()
-    const paths = location.pathname.split("/").filter(Boolean)
     const [entityName, setEntityName] = useState<string | null>(null)
-    const token = localStorage.getItem("token")
 
     useEffect(() => {
+        const paths = location.pathname.split("/").filter(Boolean)
+        const token = localStorage.getItem("token")
+        const isEntityRoute = paths.length === 2 && (paths[0] === "employees" || paths[0] === "departments")
+        if (!token || !isEntityRoute || paths[1] === "new") {
+            setEntityName(null)
+            return
+        }
+
+        let cancelled = false
         const fetchEntityName = async () => {
-            if (!token) return
-            
-            if (paths.length === 2 && (paths[0] === "employees" || paths[0] === "departments")) {
-                const id = paths[1]
-                if (id === "new") {
-                    setEntityName("New")
-                    return
+            try {
+                const headers = { Authorization: `Bearer ${token}` }
+                let name: string | null = null
+                if (paths[0] === "employees") {
+                    const response = await axios.get(`${API_URL}/api/employees`, {
+                        params: { ids: paths[1], fields: "firstName,lastName" },
+                        headers
+                    })
+                    const employee = response.data[0]
+                    name = employee ? `${employee.firstName} ${employee.lastName}` : null
+                } else {
+                    const response = await axios.get(`${API_URL}/api/departments`, {
+                        params: { ids: paths[1] },
+                        headers
+                    })
+                    name = response.data[0]?.name ?? null
                 }
-                
-                try {
-                    if (paths[0] === "employees") {
-                        const response = await axios.get(`${API_URL}/api/employees/${id}`, {
-                            headers: { Authorization: `Bearer ${token}` }
-                        })
-                        setEntityName(`${response.data.firstName} ${response.data.lastName}`)
-                    } else if (paths[0] === "departments") {
-                        const response = await axios.get(`${API_URL}/api/departments/${id}`, {
-                            headers: { Authorization: `Bearer ${token}` }
-                        })
-                        setEntityName(response.data.name)
-                    }
-                } catch (error) {
-                    console.error(`Error fetching ${paths[0]} details:`, error)
-                    setEntityName(null)
-                }
-            } else {
-                setEntityName(null)
+                if (!cancelled) setEntityName(name)
+            } catch (error) {
+                console.error(`Error fetching ${paths[0]} details:`, error)
+                if (!cancelled) setEntityName(null)
             }
         }
-        
+
         fetchEntityName()
-    }, [location.pathname, token])
+        return () => {
+            cancelled = true
+        }
+    }, [location.pathname])
+
+    return entityName
+}
+
+function AppBreadcrumbs({entityName}: { entityName: string | null }) {
+    const location = useLocation()
+    const paths = location.pathname.split("/").filter(Boolean)
+    const isEntityRoute = paths.length === 2 && (paths[0] === "employees" || paths[0] === "departments")
+    const lastLabel = isEntityRoute ? (paths[1] === "new" ? "New" : entityName) : null
 
     return (
         <Breadcrumb>
@@ -74,8 +92,8 @@ function AppBreadcrumbs() {
                     const to = "/" + paths.slice(0, index + 1).join("/")
                     
                     let label
-                    if (index === paths.length - 1 && entityName && (paths[0] === "employees" || paths[0] === "departments")) {
-                        label = entityName
+                    if (index === paths.length - 1 && lastLabel) {
+                        label = lastLabel
                     } else {
                         label = segment.replace(/-/g, " ").replace(/\b\w/g, c => c.toUpperCase())
                     }
@@ -96,48 +114,13 @@ function AppBreadcrumbs() {
     )
 }
 
-function PageTitle() {
+function PageTitle({entityName}: { entityName: string | null }) {
     const location = useLocation()
     const paths = location.pathname.split("/").filter(Boolean)
-    const [entityName, setEntityName] = useState<string | null>(null)
-    const token = localStorage.getItem("token")
-    
-    useEffect(() => {
-        const fetchEntityName = async () => {
-            if (!token) return
-            
-            if (paths.length === 2 && (paths[0] === "employees" || paths[0] === "departments")) {
-                const id = paths[1]
-                if (id === "new") {
-                    setEntityName("New " + (paths[0] === "employees" ? "Employee" : "Department"))
-                    return
-                }
-                
-                try {
-                    if (paths[0] === "employees") {
-                        const response = await axios.get(`${API_URL}/api/employees/${id}`, {
-                            headers: { Authorization: `Bearer ${token}` }
-                        })
-                        setEntityName(`${response.data.firstName} ${response.data.lastName}`)
-                    } else if (paths[0] === "departments") {
-                        const response = await axios.get(`${API_URL}/api/departments/${id}`, {
-                            headers: { Authorization: `Bearer ${token}` }
-                        })
-                        setEntityName(response.data.name)
-                    }
-                } catch (error) {
-                    console.error(`Error fetching ${paths[0]} details:`, error)
-                    setEntityName(null)
-                }
-            } else {
-                setEntityName(null)
-            }
-        }
-        
-        fetchEntityName()
-    }, [location.pathname, token, paths])
-    
-    const pageTitle = entityName || (paths.length > 0
+    const isNew = paths.length === 2 && paths[1] === "new" && (paths[0] === "employees" || paths[0] === "departments")
+    const title = isNew ? "New " + (paths[0] === "employees" ? "Employee" : "Department") : entityName
+
+    const pageTitle = title || (paths.length > 0
         ? paths[paths.length - 1].replace(/-/g, " ").replace(/\b\w/g, c => c.toUpperCase())
         : "Dashboard")
     
@@ -151,6 +134,7 @@ interface ShellProps extends PropsWithChildren {
 export default function Shell({onLogout}: ShellProps) {
     const navigate = useNavigate()
     const { user } = useCurrentUser()
+    const entityName = useRouteEntityName()
     
     const getInitials = (firstName: string, lastName: string) => {
         return `${firstName[0]}${lastName[0]}`.toUpperCase()
@@ -205,7 +189,7 @@ export default function Shell({onLogout}: ShellProps) {
             {/* Main layout with topbar and content */}
             <div className="flex-1 flex flex-col overflow-hidden">
                 <header className="h-12 px-6 bg-white border-b flex items-center justify-between shadow-sm">
-                    <AppBreadcrumbs />
+                    <AppBreadcrumbs entityName={entityName}/>
                     <div className="flex items-center gap-3">
                         {user && (
                             <>
@@ -242,7 +226,7 @@ export default function Shell({onLogout}: ShellProps) {
                 </header>
 
                 <main className="flex-1 overflow-auto p-6 bg-muted">
-                    <PageTitle />
+                    <PageTitle entityName={entityName}/>
                     <Outlet/>
                 </main>
             </div>
@@ -1,12 +1,13 @@
 import { useState, FormEvent } from "react"
 import axios from "axios"
 import { API_URL } from '../../utils/api';
+import type { AuthSession } from '../../hooks/useTokenRefresh';
 import { Input } from "@/components/ui/input"
 import { Button } from "@/components/ui/button"
 import { Card, CardContent } from "@/components/ui/card"
 
 interface Props {
-    onLogin: (token: string) => void
+    onLogin: (session: AuthSession) => void
 }
 
 export default function Login({ onLogin }: Props) {
@@ -24,7 +25,7 @@ export default function Login({ onLogin }: Props) {
                 email,
                 password,
             })
-            onLogin(res.data.token)
+            onLogin(res.data)
         } catch (err: any) {
             if (err.response) {
                 if (err.response.status === 401) {
@@ -52,7 +53,7 @@ export default function Login({ onLogin }: Props) {
                 email: "guest@demo.com",
                 password: "guest123"
             })
-            onLogin(res.data.token)
+            onLogin(res.data)
         } catch (err: any) {
             if (err.response && err.response.status === 401) {
                 setError("Guest account not found. Please contact your administrator.")
@@ -4,9 +4,10 @@ import {Input} from "@/components/ui/input"
 import {Button} from "@/components/ui/button"
 import {Card, CardContent} from "@/components/ui/card"
 import { API_URL } from '../../utils/api';
+import type { AuthSession } from '../../hooks/useTokenRefresh';
 
 interface Props {
-    onSetupComplete: (token: string) => void
+    onSetupComplete: (session: AuthSession) => void
 }
 
 export default function Setup({onSetupComplete}: Props) {
@@ -33,7 +34,7 @@ export default function Setup({onSetupComplete}: Props) {
                 email,
                 password,
             })
-            onSetupComplete(res.data.token)
+            onSetupComplete(res.data)
         } catch (err: any) {
             if (err.response) {
                 setError(err.response.data?.message || "Setup failed. Please try again.")
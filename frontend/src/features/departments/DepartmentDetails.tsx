@@ -16,6 +16,12 @@ type Department = {
     id: number
     name: string
     description: string
+    version?: number
+    stats?: {
+        total: number
+        active: number
+        byRole: Record<string, number>
+    }
 }
 
 type Props = {
@@ -134,7 +140,9 @@ export default function DepartmentDetails({token}: Props) {
                 payload = {
                     id: Number(id),
                     name: department.name,
-                    description: department.description
+                    description: department.description,
+                    // Lets the server reject the save if someone else changed this department meanwhile
+                    version: department.version
                 };
                 
                 response = await axios.put(`${API_URL}/api/departments/${id}`, payload, {
@@ -278,6 +286,15 @@ export default function DepartmentDetails({token}: Props) {
                     <CardDescription>
                         {isNewDepartment ? 'Create a new department' : 'Department details and management'}
                     </CardDescription>
+                    {!isNewDepartment && department.stats && (
+                        <p className="text-sm text-muted-foreground">
+                            {department.stats.total} members ({department.stats.active} active)
+                            {" · "}
+                            {Object.entries(department.stats.byRole)
+                                .map(([role, count]) => `${role}: ${count}`)
+                                .join(", ")}
+                        </p>
+                    )}
                     
                     {canDelete && !isNewDepartment && (
                         <AlertDialog open={showDeleteDialog} onOpenChange={setShowDeleteDialog}>
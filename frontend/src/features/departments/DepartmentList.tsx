@@ -1,4 +1,4 @@
-import {useEffect, useState} from "react"
+import {useCallback, useEffect, useRef, useState} from "react"
 import {useNavigate} from "react-router-dom"
 import {ColumnDef} from "@tanstack/react-table"
 import {MoreHorizontal} from "lucide-react"
@@ -7,12 +7,18 @@ import {DropdownMenu, DropdownMenuContent, DropdownMenuItem, DropdownMenuTrigger
 import {Badge} from "@/components/ui/badge"
 import {DataTable} from "@/components/DataTable.tsx"
 import {useCurrentUser} from "@/hooks/useCurrentUser"
+import {OrgChangeEvent, useOrgEvents} from "@/hooks/useOrgEvents"
 import {API_URL} from "@/utils/api"
 
 type Department = {
     id: number
     name: string
     description: string
+    stats?: {
+        total: number
+        active: number
+        byRole: Record<string, number>
+    }
 }
 
 type Props = {
@@ -44,6 +50,17 @@ const columns: ColumnDef<Department>[] = [
         header: "Description",
         enableSorting: true,
     },
+    {
+        id: "members",
+        accessorFn: department => department.stats?.total ?? 0,
+        header: "Members",
+        enableSorting: true,
+        cell: ({row}) => {
+            const stats = row.original.stats
+            if (!stats) return "—"
+            return `${stats.total} (${stats.active} active)`
+        }
+    },
     {
         id: "actions",
         header: "Actions",
@@ -83,36 +100,79 @@ export default function DepartmentList({token}: Props) {
     const [error, setError] = useState<string | null>(null)
     const {user} = useCurrentUser()
 
-    useEffect(() => {
-        const fetchDepartments = async () => {
-            try {
-                console.log("Fetching departments from backend...");
-                const response = await fetch(`${API_URL}/api/departments`, {
-                    headers: {
-                        "Authorization": `Bearer ${token}`,
-                        "Accept": "application/json"
-                    }
-                });
-                if (!response.ok) {
-                    if (response.status === 403) {
-                        throw new Error("You don't have permission to view departments");
-                    }
-                    throw new Error(`Failed to fetch departments: ${response.statusText}`);
+    // Counts arrive inline, so one request covers every department
+    const fetchDepartments = useCallback(async () => {
+        try {
+            const response = await fetch(`${API_URL}/api/departments`, {
+                headers: {
+                    "Authorization": `Bearer ${token}`,
+                    "Accept": "application/json"
+                }
+            });
+            if (!response.ok) {
+                if (response.status === 403) {
+                    throw new Error("You don't have permission to view departments");
                 }
-                const data = await response.json();
-                setDepartments(data);
-            } catch (err) {
-                console.error("Error fetching departments:", err);
-                setError(err instanceof Error ? err.message : "Failed to fetch departments");
-            } finally {
-                setLoading(false);
+                throw new Error(`Failed to fetch departments: ${response.statusText}`);
             }
-        };
+            const data = await response.json();
+            setDepartments(data);
+        } catch (err) {
+            console.error("Error fetching departments:", err);
+            setError(err instanceof Error ? err.message : "Failed to fetch departments");
+        } finally {
+            setLoading(false);
+        }
+    }, [token]);
 
+    useEffect(() => {
         if (token && user) {
             fetchDepartments();
         }
-    }, [token, user]);
+    }, [token, user, fetchDepartments]);
+
+    // Employee writes change the member counts; refetch the list once per burst of events
+    const refreshTimer = useRef<ReturnType<typeof setTimeout> | null>(null)
+    const scheduleRefresh = useCallback(() => {
+        if (refreshTimer.current) clearTimeout(refreshTimer.current)
+        refreshTimer.current = setTimeout(fetchDepartments, 1000)
+    }, [fetchDepartments])
+
+    useEffect(() => () => {
+        if (refreshTimer.current) clearTimeout(refreshTimer.current)
+    }, [])
+
+    // Patch the list from the change stream instead of refetching every department
+    const applyChange = useCallback(async (event: OrgChangeEvent) => {
+        if (event.entityType === "EMPLOYEE") {
+            scheduleRefresh();
+            return;
+        }
+
+        if (event.action === "DELETED") {
+            setDepartments(prev => prev.filter(department => department.id !== event.id));
+            return;
+        }
+
+        try {
+            const response = await fetch(`${API_URL}/api/departments/${event.id}`, {
+                headers: {
+                    "Authorization": `Bearer ${token}`,
+                    "Accept": "application/json"
+                }
+            });
+            if (!response.ok) return;
+
+            const updated: Department = await response.json();
+            setDepartments(prev => prev.some(department => department.id === updated.id)
+                ? prev.map(department => department.id === updated.id ? updated : department)
+                : [...prev, updated]);
+        } catch (err) {
+            console.error("Error applying department change:", err);
+        }
+    }, [token, scheduleRefresh]);
+
+    useOrgEvents(token, applyChange);
 
     const navigate = useNavigate();
 
@@ -141,6 +201,7 @@ export default function DepartmentList({token}: Props) {
                 columnMapping={{
                     name: "Name",
                     description: "Description",
+                    members: "Members",
                     actions: "Actions"
                 }}
             />
@@ -24,6 +24,7 @@ type Employee = {
     jobTitle: string;
     departmentId: number;
     managerId?: number;
+    version?: number;
 };
 
 type Department = {
@@ -121,7 +122,9 @@ export default function EmployeeDetails({ token }: Props) {
         
         const fetchManagers = async () => {
             try {
+                // The picker only shows names, so skip the rest of each employee
                 const response = await axios.get(`${API_URL}/api/employees`, {
+                    params: { fields: 'id,firstName,lastName' },
                     headers: {
                         'Authorization': `Bearer ${token}`
                     }
@@ -275,7 +278,9 @@ export default function EmployeeDetails({ token }: Props) {
                 department: {
                     id: employee.departmentId
                 },
-                managerId: employee.managerId || null
+                managerId: employee.managerId || null,
+                // Lets the server reject the save if someone else changed this employee meanwhile
+                version: isNewEmployee ? null : employee.version ?? null
             };
             
             if (isNewEmployee) {
@@ -309,7 +314,9 @@ export default function EmployeeDetails({ token }: Props) {
             if (axios.isAxiosError(error) && error.response) {
                 console.error("Response data:", error.response.data);
                 toast.error('Error saving employee', {
-                    description: error.response.data?.message || "An unknown error occurred",
+                    description: typeof error.response.data === 'string'
+                        ? error.response.data
+                        : error.response.data?.message || "An unknown error occurred",
                     duration: 8000
                 });
             } else {
@@ -1,4 +1,4 @@
-import {useEffect, useState} from "react"
+import {useCallback, useEffect, useState} from "react"
 import {useNavigate} from "react-router-dom"
 import {ColumnDef} from "@tanstack/react-table"
 import {MoreHorizontal, Shield, User} from "lucide-react"
@@ -8,6 +8,7 @@ import {Tooltip, TooltipContent, TooltipProvider, TooltipTrigger,} from "@/compo
 import {DataTable} from "@/components/DataTable.tsx"
 import {Badge} from "@/components/ui/badge"
 import {useCurrentUser} from "@/hooks/useCurrentUser"
+import {OrgChangeEvent, useOrgEvents} from "@/hooks/useOrgEvents"
 import {API_URL} from "@/utils/api"
 
 type Employee = {
@@ -18,6 +19,7 @@ type Employee = {
     role: string
     jobTitle: string
     department: {
+        id: number
         name: string
     }
     manager?: {
@@ -207,6 +209,40 @@ export default function EmployeeList({token}: Props) {
         }
     }, [token, user]);
 
+    // Patch the list from the change stream instead of refetching every employee
+    const applyChange = useCallback(async (event: OrgChangeEvent) => {
+        if (event.entityType !== "EMPLOYEE") return;
+
+        if (event.action === "DELETED") {
+            setEmployees(prev => prev.filter(employee => employee.id !== event.id));
+            return;
+        }
+
+        try {
+            const response = await fetch(`${API_URL}/api/employees/${event.id}`, {
+                headers: {
+                    "Authorization": `Bearer ${token}`,
+                    "Accept": "application/json"
+                }
+            });
+            if (response.status === 404) {
+                // No longer visible to this user
+                setEmployees(prev => prev.filter(employee => employee.id !== event.id));
+                return;
+            }
+            if (!response.ok) return;
+
+            const updated: Employee = await response.json();
+            setEmployees(prev => prev.some(employee => employee.id === updated.id)
+                ? prev.map(employee => employee.id === updated.id ? updated : employee)
+                : [...prev, updated]);
+        } catch (err) {
+            console.error("Error applying employee change:", err);
+        }
+    }, [token]);
+
+    useOrgEvents(token, applyChange);
+
     const navigate = useNavigate();
 
     return (
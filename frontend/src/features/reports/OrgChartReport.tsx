@@ -1,27 +1,16 @@
-import { useEffect, useState, useMemo, useRef } from "react";
+import { useCallback, useEffect, useState, useMemo, useRef } from "react";
 import { Button } from "@/components/ui/button";
 import { ArrowLeft, User, ChevronDown, ChevronRight, Search, Shield } from "lucide-react";
 import { useNavigate } from "react-router-dom";
 import { Input } from "@/components/ui/input";
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from "@/components/ui/table";
 import { useCurrentUser } from "@/hooks/useCurrentUser";
+import { useOrgEvents } from "@/hooks/useOrgEvents";
 import { Skeleton } from "@/components/ui/skeleton";
 import { Tooltip, TooltipContent, TooltipProvider, TooltipTrigger } from "@/components/ui/tooltip";
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@/components/ui/select";
 import { API_URL } from "@/utils/api";
-
-interface OrgChartNode {
-  id: number;
-  name: string;
-  role: string;
-  department: string;
-  departmentId: number;
-  managerId: number | null;
-  jobTitle: string;
-  subordinates: OrgChartNode[];
-  createdAt?: string;
-  updatedAt?: string;
-}
+import { rebuildOrgChart, type FlatOrgChart, type OrgChartNode } from "@/utils/orgChart";
 
 interface FlattenedNode {
   id: number;
@@ -84,11 +73,27 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
   const [departments, setDepartments] = useState<{ id: number; name: string }[]>([]);
   const [selectedDepartment, setSelectedDepartment] = useState<string>("all");
   const [searchQuery, setSearchQuery] = useState("");
+  // Empty for the live chart, otherwise a datetime-local value to view the org as it was then
+  const [asOf, setAsOf] = useState("");
   const [error, setError] = useState<string | null>(null);
   const token = propToken || localStorage.getItem("token") || "";
   const { user } = useCurrentUser();
   const [currentDateTime, setCurrentDateTime] = useState<string>("");
   const componentRef = useRef<HTMLDivElement>(null);
+  const [refreshKey, setRefreshKey] = useState(0);
+  const refreshTimer = useRef<ReturnType<typeof setTimeout> | null>(null);
+
+  // Reload the chart when the org actually changes, coalescing bursts of events
+  const scheduleRefresh = useCallback(() => {
+    if (refreshTimer.current) clearTimeout(refreshTimer.current);
+    refreshTimer.current = setTimeout(() => setRefreshKey(key => key + 1), 1000);
+  }, []);
+
+  useEffect(() => () => {
+    if (refreshTimer.current) clearTimeout(refreshTimer.current);
+  }, []);
+
+  useOrgEvents(token, scheduleRefresh);
   
   // Update current date and time
   useEffect(() => {
@@ -104,7 +109,10 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
       
       try {
         // Always fetch all employees regardless of department selection
-        const url = `${API_URL}/api/reports/orgchart`;
+        // The columnar form is much smaller for large orgs; the tree is rebuilt here
+        const url = asOf
+          ? `${API_URL}/api/reports/orgchart/flat?asOf=${encodeURIComponent(asOf)}`
+          : `${API_URL}/api/reports/orgchart/flat`;
         
         console.log("Fetching org chart data from:", url);
         
@@ -113,19 +121,20 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
             Authorization: `Bearer ${token}`,
             Accept: "application/json"
           },
+          // After a change event, bypass the short-lived HTTP cache
+          cache: refreshKey > 0 ? "no-cache" : "default",
         });
         
         if (!response.ok) {
           throw new Error(`Failed to fetch org chart data: ${response.statusText}`);
         }
         
-        const data = await response.json();
-        console.log("Org chart data:", data);
+        const data: FlatOrgChart = await response.json();
         
-        if (Array.isArray(data)) {
-          setFlattenedData(flattenOrgChart(data));
+        if (Array.isArray(data?.id)) {
+          setFlattenedData(flattenOrgChart(rebuildOrgChart(data)));
         } else {
-          console.error("Org chart data is not an array:", data);
+          console.error("Unexpected org chart data:", data);
           setError("Invalid data format received from server");
         }
       } catch (error) {
@@ -137,7 +146,7 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
     };
 
     loadOrgChartData();
-  }, [token]);  // Only reload when token changes, not when department changes
+  }, [token, refreshKey, asOf]);  // Reload on token change, org change events or a new date, not when department changes
 
   // Filter the data based on search, department, and expansion state
   const filteredDataMemo = useMemo(() => {
@@ -321,6 +330,13 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
               ))}
             </SelectContent>
           </Select>
+          <Input
+            type="datetime-local"
+            className="w-[220px]"
+            title="Show the organization as it was at this time"
+            value={asOf}
+            onChange={(e) => setAsOf(e.target.value)}
+          />
         </div>
       </div>
 
@@ -348,7 +364,9 @@ export default function OrgChartReport({ token: propToken }: Props = {}) {
                   ? "All Departments" 
                   : `Department: ${departments.find(d => d.id.toString() === selectedDepartment)?.name || ""}`}
               </span>
-              <span>Generated: {currentDateTime}</span>
+              <span>
+                {asOf ? `As of: ${new Date(asOf).toLocaleString()} · ` : ""}Generated: {currentDateTime}
+              </span>
             </div>
           </div>
           <Table>
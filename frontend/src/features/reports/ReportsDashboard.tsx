@@ -1,8 +1,82 @@
 import { GitBranchPlus } from "lucide-react";
-import { ReactNode } from "react";
+import { ReactNode, useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import { Button } from "@/components/ui/button";
 import { Card, CardContent, CardDescription, CardFooter, CardHeader, CardTitle } from "@/components/ui/card";
+import { useCurrentUser } from "@/hooks/useCurrentUser";
+import { API_URL } from "@/utils/api";
+
+interface OrgAnalytics {
+  asOf: string;
+  totalEmployees: number;
+  activeEmployees: number;
+  inactiveEmployees: number;
+  unassignedEmployees: number;
+  byDepartment: { departmentId: number; name: string; total: number; active: number }[];
+  byRole: { role: string; total: number; active: number }[];
+  managers: number;
+  averageSpanOfControl: number;
+  maxSpanOfControl: number;
+  maxChainDepth: number;
+}
+
+function StatCard({ title, value, detail }: { title: string; value: ReactNode; detail?: ReactNode }) {
+  return (
+    <Card>
+      <CardHeader className="pb-2">
+        <CardDescription>{title}</CardDescription>
+        <CardTitle className="text-3xl">{value}</CardTitle>
+      </CardHeader>
+      {detail && (
+        <CardContent className="text-sm text-muted-foreground">{detail}</CardContent>
+      )}
+    </Card>
+  );
+}
+
+// Headcount figures computed server-side; only shown to roles that can see the whole org
+function OrgAnalyticsSummary() {
+  const [analytics, setAnalytics] = useState<OrgAnalytics | null>(null);
+
+  useEffect(() => {
+    const token = localStorage.getItem("token");
+    fetch(`${API_URL}/api/reports/analytics`, {
+      headers: { Authorization: `Bearer ${token}` }
+    })
+      .then(response => (response.ok ? response.json() : null))
+      .then(data => setAnalytics(data))
+      .catch(error => console.error("Error fetching org analytics:", error));
+  }, []);
+
+  if (!analytics) return null;
+
+  const largest = [...analytics.byDepartment].sort((a, b) => b.total - a.total)[0];
+
+  return (
+    <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-4 gap-6 mb-6">
+      <StatCard
+        title="Headcount"
+        value={analytics.totalEmployees}
+        detail={`${analytics.activeEmployees} active, ${analytics.inactiveEmployees} inactive`}
+      />
+      <StatCard
+        title="By role"
+        value={analytics.byRole.length}
+        detail={analytics.byRole.map(r => `${r.role}: ${r.total}`).join(", ")}
+      />
+      <StatCard
+        title="Average span of control"
+        value={analytics.averageSpanOfControl}
+        detail={`${analytics.managers} managers, largest team ${analytics.maxSpanOfControl}`}
+      />
+      <StatCard
+        title="Levels in the org"
+        value={analytics.maxChainDepth}
+        detail={largest ? `Largest department: ${largest.name} (${largest.total})` : undefined}
+      />
+    </div>
+  );
+}
 
 interface ReportCardProps {
   title: string;
@@ -41,6 +115,9 @@ function ReportCard({ title, description, icon, path }: ReportCardProps) {
 }
 
 export default function ReportsDashboard() {
+  const { user } = useCurrentUser();
+  const canSeeAnalytics = user?.role === "ADMIN" || user?.role === "GUEST";
+
   const reports = [
     {
       id: "orgchart",
@@ -54,6 +131,7 @@ export default function ReportsDashboard() {
 
   return (
     <div>
+      {canSeeAnalytics && <OrgAnalyticsSummary />}
       <div className="grid grid-cols-1 md:grid-cols-2 lg:grid-cols-3 gap-6">
         {reports.map((report) => (
           <ReportCard
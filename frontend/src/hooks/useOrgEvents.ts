@@ -0,0 +1,83 @@
+import { useEffect, useRef } from 'react'
+import { API_URL } from '../utils/api'
+
+export type OrgChangeEvent = {
+    entityType: 'EMPLOYEE' | 'DEPARTMENT'
+    action: 'CREATED' | 'UPDATED' | 'DELETED'
+    id: number
+    version: number | null
+}
+
+/**
+ * Subscribes to the server's change stream (/api/events) and calls onEvent for every
+ * committed employee or department change, so views can patch their local state
+ * instead of refetching whole lists. Reconnects automatically after a drop.
+ *
+ * EventSource cannot send an Authorization header, so the stream is read with fetch.
+ */
+export function useOrgEvents(token: string | null, onEvent: (event: OrgChangeEvent) => void) {
+    // Keep the latest callback without reopening the stream on every render
+    const handler = useRef(onEvent)
+    useEffect(() => {
+        handler.current = onEvent
+    }, [onEvent])
+
+    useEffect(() => {
+        if (!token) return
+
+        const controller = new AbortController()
+        let retryTimer: ReturnType<typeof setTimeout> | undefined
+
+        const connect = async () => {
+            try {
+                const response = await fetch(`${API_URL}/api/events`, {
+                    headers: {
+                        Authorization: `Bearer ${token}`,
+                        Accept: 'text/event-stream'
+                    },
+                    signal: controller.signal
+                })
+                if (!response.ok || !response.body) {
+                    throw new Error(`Event stream failed: ${response.status}`)
+                }
+
+                const reader = response.body.pipeThrough(new TextDecoderStream()).getReader()
+                let buffer = ''
+                for (;;) {
+                    const { value, done } = await reader.read()
+                    if (done) break
+                    buffer += value
+
+                    // Events are separated by a blank line
+                    let boundary = buffer.indexOf('\n\n')
+                    while (boundary >= 0) {
+                        const frame = buffer.slice(0, boundary)
+                        buffer = buffer.slice(boundary + 2)
+                        const data = frame
+                            .split('\n')
+                            .filter(line => line.startsWith('data:'))
+                            .map(line => line.slice(5))
+                            .join('\n')
+                        if (data) {
+                            handler.current(JSON.parse(data) as OrgChangeEvent)
+                        }
+                        boundary = buffer.indexOf('\n\n')
+                    }
+                }
+            } catch (err) {
+                if (controller.signal.aborted) return
+                console.error('Change stream disconnected:', err)
+            }
+            if (!controller.signal.aborted) {
+                retryTimer = setTimeout(connect, 5000)
+            }
+        }
+
+        connect()
+
+        return () => {
+            controller.abort()
+            if (retryTimer) clearTimeout(retryTimer)
+        }
+    }, [token])
+}
@@ -0,0 +1,92 @@
+import { useEffect, useRef } from 'react'
+import axios from 'axios'
+import { API_URL } from '../utils/api'
+
+export type AuthSession = {
+    token: string
+    refreshToken: string
+    expiresIn: number
+}
+
+// Renew this long before the access token expires, plus a random share of the jitter to
+// spread the load across tabs
+const REFRESH_LEAD_MS = 60_000
+const REFRESH_JITTER_MS = 30_000
+const RETRY_DELAY_MS = 10_000
+
+// Held while a tab presents the refresh token. Timers in tabs woken from sleep fire together,
+// and a second use of the same token revokes the whole session, so tabs take turns; the ones
+// that waited then find the token already replaced.
+const REFRESH_LOCK = 'ems-token-refresh'
+
+function expiresAt(token: string): number | null {
+    try {
+        const payload = token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')
+        const { exp } = JSON.parse(atob(payload)) as { exp?: number }
+        return exp ? exp * 1000 : null
+    } catch {
+        return null
+    }
+}
+
+/**
+ * Renews the short-lived access token shortly before it expires, using the refresh token
+ * in localStorage. Refresh tokens rotate on every use, so only one tab refreshes at a time
+ * (a Web Lock shared by every tab of the origin), and a tab that finds the stored token
+ * already replaced leaves it to the tab that replaced it. onRefreshed must store the new
+ * session before returning. Calls onExpired when the server rejects the refresh token.
+ */
+export function useTokenRefresh(
+    token: string | null,
+    onRefreshed: (session: AuthSession) => void,
+    onExpired: () => void
+) {
+    // Keep the latest callbacks without rescheduling on every render
+    const refreshed = useRef(onRefreshed)
+    const expired = useRef(onExpired)
+    useEffect(() => {
+        refreshed.current = onRefreshed
+        expired.current = onExpired
+    }, [onRefreshed, onExpired])
+
+    useEffect(() => {
+        if (!token) return
+        const exp = expiresAt(token)
+        if (exp === null) return
+
+        let timer: ReturnType<typeof setTimeout>
+        const rotate = async () => {
+            // Another tab already rotated the pair; the storage event brings the new token here
+            if (localStorage.getItem('token') !== token) return
+
+            const refreshToken = localStorage.getItem('refreshToken')
+            if (!refreshToken) {
+                expired.current()
+                return
+            }
+            try {
+                const res = await axios.post<AuthSession>(`${API_URL}/api/auth/refresh`, { refreshToken })
+                refreshed.current(res.data)
+            } catch (err: any) {
+                if (err.response?.status === 401) {
+                    expired.current()
+                } else {
+                    console.error('Token refresh failed, retrying:', err)
+                    timer = setTimeout(refresh, RETRY_DELAY_MS)
+                }
+            }
+        }
+        const refresh = async () => {
+            // Browsers without Web Locks fall back to the check above and the jitter
+            if (navigator.locks) {
+                await navigator.locks.request(REFRESH_LOCK, rotate)
+            } else {
+                await rotate()
+            }
+        }
+
+        const delay = exp - Date.now() - REFRESH_LEAD_MS - Math.random() * REFRESH_JITTER_MS
+        timer = setTimeout(refresh, Math.max(0, delay))
+        return () => clearTimeout(timer)
+    }, [token])
+}
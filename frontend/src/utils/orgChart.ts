@@ -0,0 +1,66 @@
+/**
+ * Columnar org chart returned by /api/reports/orgchart/flat. Every array is indexed by
+ * position; parent, role, department and jobTitle are indexes (-1 for none), the last
+ * three into the shared strings table. Managers always come before their reports.
+ */
+export type FlatOrgChart = {
+    count: number
+    strings: string[]
+    id: number[]
+    parent: number[]
+    firstName: string[]
+    lastName: string[]
+    role: number[]
+    departmentId: (number | null)[]
+    department: number[]
+    managerId: (number | null)[]
+    jobTitle: number[]
+    createdAt: (string | null)[]
+    updatedAt: (string | null)[]
+}
+
+export type OrgChartNode = {
+    id: number
+    name: string
+    role: string
+    department: string
+    departmentId: number
+    managerId: number | null
+    jobTitle: string
+    subordinates: OrgChartNode[]
+    createdAt?: string
+    updatedAt?: string
+}
+
+/**
+ * Rebuilds the nested tree (the same shape /api/reports/orgchart returns) in one pass,
+ * relying on parents preceding their children.
+ */
+export function rebuildOrgChart(flat: FlatOrgChart): OrgChartNode[] {
+    const text = (index: number) => (index >= 0 ? flat.strings[index] : '')
+    const nodes: OrgChartNode[] = new Array(flat.count)
+    const roots: OrgChartNode[] = []
+
+    for (let i = 0; i < flat.count; i++) {
+        const node: OrgChartNode = {
+            id: flat.id[i],
+            name: `${flat.firstName[i]} ${flat.lastName[i]}`,
+            role: text(flat.role[i]),
+            department: text(flat.department[i]),
+            departmentId: flat.departmentId[i] ?? 0,
+            managerId: flat.managerId[i],
+            jobTitle: text(flat.jobTitle[i]),
+            subordinates: [],
+            createdAt: flat.createdAt[i] ?? undefined,
+            updatedAt: flat.updatedAt[i] ?? undefined
+        }
+        nodes[i] = node
+        const parent = flat.parent[i]
+        if (parent >= 0) {
+            nodes[parent].subordinates.push(node)
+        } else {
+            roots.push(node)
+        }
+    }
+    return roots
+}